@@ -0,0 +1,109 @@
+package bench;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntToLongFunction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// JMH version of PerfBench: the same hot paths (move generation, make/unmake, evaluation, a first chooseMove),
+// run in forked JVMs with warm-up, a blackhole for every result and confidence intervals in the report.
+// The engine lives in the default package, which a named package cannot reference and JMH does not accept
+// benchmarks in, so the bodies come from PerfBench.benchmarks: looked up reflectively once per trial in setup,
+// then called through IntToLongFunction, which keeps reflection out of the measured code.
+// Level files are read relative to the working directory (run from the repository root).
+//
+// Build and run: cd 1002 && mvn -P jmh package && cd .. && java -jar 1002/target/benchmarks.jar [JMH options]
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class EngineBenchmark {
+    // Operations per call for the cheap benchmarks (make/unmake cycles through the legal moves)
+    private static final int BATCH = 64;
+
+    @Param({"level1.txt", "level2.txt", "level3.txt", "level4.txt"})
+    public String level;
+
+    private IntToLongFunction generatePossibleMoves;
+    private IntToLongFunction generateMoves;
+    private IntToLongFunction executeUndo;
+    private IntToLongFunction executeUndoMove;
+    private IntToLongFunction evaluate;
+    private IntToLongFunction chooseMoveAStar;
+    private IntToLongFunction chooseMoveIdaStar;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws ReflectiveOperationException {
+        Map<String, IntToLongFunction> bodies = (Map<String, IntToLongFunction>)
+                Class.forName("PerfBench").getMethod("benchmarks", String.class).invoke(null, level);
+        generatePossibleMoves = bodies.get("generatePossibleMoves");
+        generateMoves = bodies.get("generateMoves");
+        executeUndo = bodies.get("executeMove+undo");
+        executeUndoMove = bodies.get("executeMove(Move)+undo");
+        evaluate = bodies.get("evaluate");
+        chooseMoveAStar = bodies.get("chooseMove[A_STAR]");
+        chooseMoveIdaStar = bodies.get("chooseMove[IDA_STAR]");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long generatePossibleMoves() {
+        return generatePossibleMoves.applyAsLong(BATCH);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long generateMoves() {
+        return generateMoves.applyAsLong(BATCH);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long executeMoveUndo() {
+        return executeUndo.applyAsLong(BATCH);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long executeMoveObjectUndo() {
+        return executeUndoMove.applyAsLong(BATCH);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long evaluate() {
+        return evaluate.applyAsLong(BATCH);
+    }
+
+    // A first move from the start position: a full search, milliseconds to seconds per call
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2, time = 2)
+    @Measurement(iterations = 3, time = 2)
+    public long chooseMoveAStar() {
+        return chooseMoveAStar.applyAsLong(1);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2, time = 2)
+    @Measurement(iterations = 3, time = 2)
+    public long chooseMoveIdaStar() {
+        return chooseMoveIdaStar.applyAsLong(1);
+    }
+}
@@ -1,12 +1,70 @@
 import java.util.*;
-import java.util.stream.Collectors; // 新增：解决Collectors符号未解析问题
+import java.util.concurrent.ForkJoinPool;
 
 public class AIPlayer extends Player {
+    // 搜索模式：A_STAR为原启发式A*；EXACT为已知骰子序列下的精确求解（开局求解一次，之后按计划走）；
+    // IDA_STAR为迭代加深A*（阈值和f值用DiceBound的可证下界，启发函数只决定走法顺序；内存有界，适合步数多的关卡）；
+    // PARALLEL为精确求解的并行版本（根节点走法分给ForkJoinPool的多个线程，共享置换表和当前最优步数）
+    public enum SearchMode {
+        A_STAR,
+        EXACT,
+        IDA_STAR,
+        PARALLEL
+    }
+
     private int targetPiece;
     private int maxAllowedMoves;
     private int currentMoveCount;
     private int[] diceSequence; // 完整骰子序列
     private int currentDiceIndex; // 当前骰子索引
+    // 走法缓冲区（复用，避免每个节点分配）
+    private final int[] expandBuffer = new int[GameState.MAX_MOVES];
+    // A*开放列表（按f值分桶，节点字段存于基本类型数组）和出队局面载入的可复用状态
+    private final OpenList openList = new OpenList();
+    private GameState expandState; // 随目标棋子重建（isWinning按目标棋子判断）
+    // 根节点的候选走法（MoveCodec完整编码：棋子、起点、终点、被吃棋子），贪心策略直接在其上打分
+    private final int[] rootMoves = new int[GameState.MAX_MOVES];
+    private HeuristicEvaluator evaluator; // 启发函数的局面特征（随目标棋子重建）
+    // 置换表：以Zobrist哈希为键记录已访问状态的最少步数（替代字符串键的HashMap）
+    private final TranspositionTable visited = new TranspositionTable(18, TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED);
+    private SearchMode searchMode = SearchMode.A_STAR;
+    private DiceSolver solver; // 精确求解器（目标棋子/骰子序列变化时重建）
+    private DiceBound diceBound; // 可证的获胜步数下界（剪枝4和死局判断用，目标棋子/骰子序列变化时重建）
+    private int planStep;      // 当前走到计划中的第几步
+    // 主变例（A*/IDA*）：上一次搜索证明获胜的路线（紧凑编码）及每步走子前的局面哈希，跨回合保留；
+    // 实际局面与路线预测一致时直接走下一步，不再搜索（EXACT/PARALLEL用求解器自己的计划）
+    private int[] pvMoves = new int[0];
+    private long[] pvHashes = new long[0];
+    private int pvLength;
+    private int pvStep;
+    private int idaFoundDepth; // IDA*：找到获胜（或残局库必胜）局面时的深度，即idaLine的有效长度
+    private ForkJoinPool searchPool = ForkJoinPool.commonPool(); // PARALLEL模式使用的线程池
+    private int splitDepth = 1; // PARALLEL模式：前几层的走法拆分为并行任务（1或2）
+    // IDA*：每层一个走法缓冲区和当前路径（内存与深度线性相关），以及上一回合成功时的阈值
+    private int[][] idaBuffers = new int[0][];
+    private int[] idaLine = new int[0];
+    private int[][] idaScores = new int[0][]; // 每层走法的启发代价（排序用）
+    private long[] idaFeatures = new long[0]; // 每层的局面特征（增量更新）
+    private int lastIdaThreshold;
+    private int lastIdaMoveCount; // 记下lastIdaThreshold时的步数（之后可能已按主变例走了多步）
+    private static final int PRUNED = -1; // evaluateChild：子节点被剪枝
+    private static final int FOUND = -1;  // idaSearch：找到获胜路径
+    // 限时搜索：每步时间限制（毫秒，0表示不限时）、本步截止时间、是否已超时、上一步结果是否已证明必胜
+    private long moveTimeLimitMillis;
+    private long searchDeadline = Long.MAX_VALUE;
+    private boolean searchTimedOut;
+    private boolean lastMoveProven;
+    // 搜索边界上启发代价最小的节点的第一步（编码走法），无解时作为当前最优
+    private static final int NO_MOVE = -1;
+    private int frontierBestMove = NO_MOVE;
+    private int frontierBestH = Integer.MAX_VALUE;
+    // 本步决策的统计（节点数、各剪枝规则次数、置换表命中、队列峰值、耗时），每步开始时清零
+    private final SearchStats stats = new SearchStats();
+    // 残局库（棋子数不超过2或3时直接查表，null表示不使用）；probeEndgame的返回值
+    private EndgameTablebase tablebase;
+    private static final int ENDGAME_NONE = 0; // 局面不在残局库中
+    private static final int ENDGAME_LOSS = 1; // 剩余步数内无法获胜
+    private static final int ENDGAME_WIN = 2;  // 剩余步数内必胜
 
     public AIPlayer() {
         super("AI Player");
@@ -15,6 +73,12 @@ public class AIPlayer extends Player {
     // 设置目标棋子
     public void setTargetPiece(int targetPiece) {
         this.targetPiece = targetPiece;
+        this.solver = null;
+        this.diceBound = null;
+        this.pvLength = 0;
+        this.lastIdaThreshold = 0;
+        this.evaluator = new HeuristicEvaluator(targetPiece);
+        this.expandState = new GameState(new int[]{-1, -1, -1, -1, -1, -1}, targetPiece);
     }
 
     // 设置最大允许步数（按关卡）
@@ -30,6 +94,10 @@ public class AIPlayer extends Player {
     // 设置骰子序列
     public void setDiceSequence(int[] diceSequence) {
         this.diceSequence = diceSequence;
+        this.solver = null;
+        this.diceBound = null;
+        this.pvLength = 0;
+        this.lastIdaThreshold = 0;
     }
 
     // 设置当前骰子索引
@@ -37,117 +105,614 @@ public class AIPlayer extends Player {
         this.currentDiceIndex = index;
     }
 
+    // 设置置换表替换策略
+    public void setReplacementPolicy(TranspositionTable.ReplacementPolicy policy) {
+        visited.setReplacementPolicy(policy);
+    }
+
+    // 设置搜索模式
+    public void setSearchMode(SearchMode searchMode) {
+        this.searchMode = searchMode;
+    }
+
+    public SearchMode getSearchMode() {
+        return searchMode;
+    }
+
+    // 设置每步的时间限制（毫秒，0表示不限时）
+    public void setMoveTimeLimitMillis(long moveTimeLimitMillis) {
+        this.moveTimeLimitMillis = moveTimeLimitMillis;
+    }
+
+    // 上一步是否来自已证明的获胜路径（false表示超时或无解时的尽力而为）
+    public boolean isLastMoveProven() {
+        return lastMoveProven;
+    }
+
+    // 设置PARALLEL模式的线程池和拆分层数（1=只拆根节点，2=再拆下一层）
+    public void setParallelSearch(ForkJoinPool pool, int splitDepth) {
+        this.searchPool = pool;
+        this.splitDepth = splitDepth;
+    }
+
+    // 设置本关的残局库（须与目标棋子和骰子序列一致，见EndgameTablebase.openIfPresent）
+    public void setTablebase(EndgameTablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
     // 重置步数和骰子索引
     public void resetMoveCount() {
         this.currentMoveCount = 0;
         this.currentDiceIndex = 0;
+        this.planStep = 0;
+        this.pvLength = 0;
+        this.lastIdaThreshold = 0;
+        if (solver != null) {
+            solver.clearPlan(); // 清空上一局的计划
+        }
+    }
+
+    /**
+     * 上一次chooseMove的搜索统计（同一对象会被下一步覆盖，需要保留时用copy()）
+     */
+    public SearchStats getLastSearchStats() {
+        return stats;
     }
 
     @Override
     public Move chooseMove(GameState gameState) {
+        ChooseMoveEvent event = new ChooseMoveEvent();
+        event.begin();
+        stats.reset(searchMode.name());
+        try {
+            // 搜索全程使用int编码的走法，只在这里生成返回给调用方的Move对象
+            return MoveCodec.toMove(decideMove(gameState));
+        } finally {
+            stats.finish(lastMoveProven, searchTimedOut);
+            if (event.shouldCommit()) {
+                event.fill(stats, currentMoveCount);
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * 一步决策：精确计划、A*或IDA*搜索、贪心策略；返回MoveCodec编码的走法，无棋可走时返回MoveCodec.NONE
+     */
+    private int decideMove(GameState gameState) {
         currentMoveCount++;
-        List<Move> possibleMoves = gameState.generatePossibleMoves();
-        if (possibleMoves.isEmpty()) {
-            return null;
+        lastMoveProven = false;
+        searchTimedOut = false;
+        searchDeadline = moveTimeLimitMillis > 0 ? System.nanoTime() + moveTimeLimitMillis * 1_000_000 : Long.MAX_VALUE;
+        if (solver != null) {
+            solver.setDeadline(searchDeadline);
+        }
+        int moveCount = gameState.generateMoves(expandBuffer);
+        if (moveCount == 0) {
+            return MoveCodec.NONE;
+        }
+        for (int i = 0; i < moveCount; i++) {
+            rootMoves[i] = MoveCodec.of(gameState, expandBuffer[i]);
         }
 
-        int remainingMoves = maxAllowedMoves - currentMoveCount;
-        if (remainingMoves <= 0) {
-            // 无剩余步数，强制移动目标棋子（向0靠近）
-            Move targetMove = getTargetPieceMove(possibleMoves, gameState);
-            return targetMove != null ? targetMove : possibleMoves.get(0);
+        // 精确模式：按开局求得的最优计划走子（计划外的局面会重新求解）
+        if (searchMode == SearchMode.EXACT || searchMode == SearchMode.PARALLEL) {
+            int plannedMove = getPlannedMove(gameState);
+            if (plannedMove != MoveCodec.NONE) {
+                lastMoveProven = true;
+                return plannedMove;
+            }
+            // 求解器已证明步数内无解（或已用完本步时间）：A*/IDA*也不可能找到，直接用贪心策略
+            searchTimedOut = solver.isTimedOut();
+            return getGreedyBestMove(gameState, rootMoves, moveCount);
         }
 
-        // A*搜索最优路径（深度=剩余步数，强化骰子预判）
-        Move bestMove = aStarSearch(gameState, remainingMoves);
-        if (bestMove != null) {
+        // 主变例：局面与上一回合证明的获胜路线一致时直接按路线走（各回合除第一步外几乎无需搜索）
+        if (searchMode == SearchMode.A_STAR || searchMode == SearchMode.IDA_STAR) {
+            int pvMove = getPrincipalVariationMove(gameState);
+            if (pvMove != MoveCodec.NONE) {
+                lastMoveProven = true;
+                return pvMove;
+            }
+        }
+
+        // 局面的骰子索引与本回合对齐（调用方可能只设置了骰子点数），残局库判断覆盖范围时要用到
+        if (gameState.getDiceIndex() != currentDiceIndex) {
+            gameState.setDiceIndex(currentDiceIndex);
+        }
+
+        // 搜索深度：本步也计入预算，所以剩余步数要加回1（与精确模式一致）
+        int searchDepth = maxAllowedMoves - currentMoveCount + 1;
+        if (searchDepth <= 0) {
+            // 已超出步数预算，强制移动目标棋子（向0靠近）
+            int targetMove = getTargetPieceMove(rootMoves, moveCount);
+            return targetMove != MoveCodec.NONE ? targetMove : rootMoves[0];
+        }
+
+        // 残局库覆盖的局面：直接查表，不再搜索
+        if (tablebase != null && tablebase.covers(gameState)) {
+            int value = tablebase.probe(gameState);
+            stats.tablebaseHit();
+            if (value > 0 && value <= searchDepth) {
+                lastMoveProven = true;
+                return MoveCodec.of(gameState, tablebase.bestMove(gameState));
+            }
+            // 步数内无法获胜：搜索也找不到，直接用贪心策略
+            return getGreedyBestMove(gameState, rootMoves, moveCount);
+        }
+
+        // 死局：可证下界超过剩余步数（含本步），搜索不可能找到获胜路径，直接用贪心策略
+        int rootBound = getDiceBound().lowerBound(currentDiceIndex, gameState.getAliveMask(), gameState.positionOf(targetPiece));
+        if (rootBound > searchDepth) {
+            return getGreedyBestMove(gameState, rootMoves, moveCount);
+        }
+
+        // 有时间限制：迭代加深，随时持有当前最优走法，超时即返回
+        if (moveTimeLimitMillis > 0) {
+            return deadlineSearch(gameState, moveCount, searchDepth);
+        }
+
+        // A*/IDA*搜索最优路径（深度=剩余步数含本步，强化骰子预判）
+        int bestMove = search(gameState, searchDepth);
+        if (bestMove != MoveCodec.NONE) {
+            lastMoveProven = true;
             return bestMove;
         }
 
         // 贪心策略：严格遵循用户最新需求
-        return getGreedyBestMove(gameState, possibleMoves);
+        return getGreedyBestMove(gameState, rootMoves, moveCount);
     }
 
     /**
-     * A*搜索：强化下一步骰子预判+目标棋子保护
+     * 按当前模式执行一次A*或IDA*搜索，返回第一步（MoveCodec编码；无解或超时返回MoveCodec.NONE，超时并置searchTimedOut）
+     */
+    private int search(GameState gameState, int maxDepth) {
+        return searchMode == SearchMode.IDA_STAR
+                ? idaStarSearch(gameState, maxDepth)
+                : aStarSearch(gameState, maxDepth);
+    }
+
+    /**
+     * 限时搜索：先以贪心走法作为保底，再从深度1起逐层加深；
+     * 某层找到获胜路径即返回（已证明），否则记下该层最接近目标的走法作为当前最优，超时返回当前最优
+     */
+    private int deadlineSearch(GameState gameState, int moveCount, int maxDepth) {
+        int bestSoFar = getGreedyBestMove(gameState, rootMoves, moveCount);
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            int found = search(gameState, depth);
+            if (searchTimedOut) {
+                break;
+            }
+            if (found != MoveCodec.NONE) {
+                lastMoveProven = true;
+                return found;
+            }
+            if (frontierBestMove != NO_MOVE) {
+                bestSoFar = MoveCodec.of(gameState, frontierBestMove);
+            }
+        }
+        return bestSoFar;
+    }
+
+    /**
+     * 是否已超过本步的时间限制（超时后一直返回true）
+     */
+    private boolean deadlineReached() {
+        if (!searchTimedOut && searchDeadline != Long.MAX_VALUE && System.nanoTime() >= searchDeadline) {
+            searchTimedOut = true;
+        }
+        return searchTimedOut;
+    }
+
+    /**
+     * 记录搜索边界上启发代价最小的节点的第一步（限时搜索无解时的最优退路）
      */
-    private Move aStarSearch(GameState initialState, int maxDepth) {
-        PriorityQueue<Node> openSet = new PriorityQueue<>(Comparator.comparingInt(n -> n.totalCost));
-        Map<String, Integer> visited = new HashMap<>();
+    private void recordFrontier(int hCost, int firstMove) {
+        if (hCost < frontierBestH) {
+            frontierBestH = hCost;
+            frontierBestMove = firstMove;
+        }
+    }
 
-        int initHeuristic = calculateHeuristic(initialState, currentDiceIndex);
-        openSet.add(new Node(initialState, null, 0, initHeuristic, currentDiceIndex));
-        visited.put(getStateKey(initialState), 0);
+    /**
+     * 精确模式：若当前局面与计划一致则O(1)返回计划中的走法，否则以剩余步数重新求解；无解返回MoveCodec.NONE
+     */
+    private int getPlannedMove(GameState gameState) {
+        if (solver == null) {
+            solver = new DiceSolver(targetPiece, diceSequence);
+            solver.setDeadline(searchDeadline);
+        }
+        if (gameState.getDiceIndex() != currentDiceIndex) {
+            gameState.setDiceIndex(currentDiceIndex);
+        }
+        if (planStep >= solver.getPlanLength() || solver.getPlanHash(planStep) != gameState.getHash()) {
+            // 本步也计入预算，所以剩余步数要加回1
+            int budget = maxAllowedMoves - currentMoveCount + 1;
+            int length = searchMode == SearchMode.PARALLEL
+                    ? solver.solveParallel(gameState, budget, searchPool, splitDepth)
+                    : solver.solve(gameState, budget);
+            stats.addSolverNodes(solver.getNodeCount());
+            if (length == DiceSolver.NO_SOLUTION) {
+                return MoveCodec.NONE;
+            }
+            planStep = 0;
+        }
+        return MoveCodec.of(gameState, solver.getPlanMove(planStep++));
+    }
+
+    /**
+     * 主变例的下一步：当前局面的哈希与路线预测的一致则返回下一步（MoveCodec编码），否则丢弃路线并返回MoveCodec.NONE
+     */
+    private int getPrincipalVariationMove(GameState gameState) {
+        if (pvStep >= pvLength) {
+            return MoveCodec.NONE;
+        }
+        if (gameState.getDiceIndex() != currentDiceIndex) {
+            gameState.setDiceIndex(currentDiceIndex);
+        }
+        if (pvHashes[pvStep] != gameState.getHash()) {
+            pvLength = 0; // 局面偏离了路线（例如上一步来自限时搜索的尽力而为），重新搜索
+            return MoveCodec.NONE;
+        }
+        return MoveCodec.of(gameState, pvMoves[pvStep++]);
+    }
 
-        while (!openSet.isEmpty()) {
-            Node currentNode = openSet.poll();
+    /**
+     * 记录搜索得到的获胜路线：从根节点起依次走子，记下每步走子前的哈希，再全部悔棋；
+     * 第一步就是本回合要走的棋，所以下一回合从第二步开始对照
+     */
+    private void recordPrincipalVariation(GameState rootState, int[] line, int length) {
+        if (pvMoves.length < length) {
+            pvMoves = new int[length];
+            pvHashes = new long[length];
+        }
+        int rootIndex = rootState.getDiceIndex();
+        int rootDice = rootState.getCurrentDice();
+        int[] undo = new int[length];
+        for (int i = 0; i < length; i++) {
+            setDice(rootState, currentDiceIndex + i);
+            pvMoves[i] = line[i];
+            pvHashes[i] = rootState.getHash();
+            undo[i] = rootState.executeMove(line[i]);
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            rootState.undoMove(undo[i]);
+        }
+        rootState.setDiceIndex(rootIndex);
+        rootState.setCurrentDice(rootDice);
+        pvLength = length;
+        pvStep = 1;
+    }
+
+    /**
+     * A*搜索：强化下一步骰子预判+目标棋子保护
+     */
+    private int aStarSearch(GameState initialState, int maxDepth) {
+        openList.clear();
+        visited.clear();
+        frontierBestMove = NO_MOVE;
+        frontierBestH = Integer.MAX_VALUE;
+
+        long initFeatures = evaluator.computeFeatures(initialState);
+        int initHeuristic = calculateHeuristic(initialState, currentDiceIndex, initFeatures);
+        openList.push(initialState.toPacked(), initFeatures, NO_MOVE, NO_MOVE, OpenList.NONE, 0, initHeuristic, currentDiceIndex);
+        visited.store(initialState.getHash(), maxDepth, TranspositionTable.BOUND_EXACT, 0, 0);
+
+        while (!openList.isEmpty()) {
+            if (deadlineReached()) {
+                return MoveCodec.NONE;
+            }
+            stats.openSize(openList.size());
+            int node = openList.pop();
+            int gCost = openList.gCost(node);
+            int diceIndex = openList.diceIndex(node);
+            int firstMove = openList.firstMove(node);
+            // 出队的局面载入同一个可复用的状态对象，不再为每个节点新建GameState
+            expandState.loadPacked(openList.state(node));
+            if (firstMove != NO_MOVE) {
+                recordFrontier(openList.hCost(node), firstMove);
+            }
 
             // 终止条件1：目标棋子到达0点（优先返回）
-            if (currentNode.gameState.isWinning()) {
-                return currentNode.firstMove;
+            if (expandState.isWinning()) {
+                recordPrincipalVariation(initialState, node);
+                return rootMove(initialState, firstMove);
+            }
+            // 入队时残局库已证明剩余步数内必胜（路线记到该局面为止，之后由残局库接手）
+            if (openList.isProven(node)) {
+                recordPrincipalVariation(initialState, node);
+                return rootMove(initialState, firstMove);
             }
 
             // 终止条件2：达到搜索深度上限
-            if (currentNode.gCost >= maxDepth) {
+            if (gCost >= maxDepth) {
                 continue;
             }
 
-            List<Move> possibleMoves = currentNode.gameState.generatePossibleMoves();
-            for (Move move : possibleMoves) {
-                GameState nextState = copyGameState(currentNode.gameState);
-                nextState.executeMove(move);
-                String nextStateKey = getStateKey(nextState);
-                int nextGCost = currentNode.gCost + 1;
-                int nextDiceIndex = currentNode.diceIndex + 1;
+            // 在同一个状态上走子/悔棋，不再为每个子节点复制状态；子节点换成下一颗骰子
+            stats.nodeExpanded();
+            int moveCount = expandState.generateMoves(expandBuffer);
+            for (int k = 0; k < moveCount; k++) {
+                stats.nodeGenerated();
+                int undo = expandState.executeMove(expandBuffer[k]);
+                setDice(expandState, diceIndex + 1);
+                pushChildNode(node, expandState, undo, maxDepth);
+                setDice(expandState, diceIndex);
+                expandState.undoMove(undo);
+            }
+        }
+        return MoveCodec.NONE;
+    }
 
-                // 剪枝1：已访问且步数更多
-                if (visited.containsKey(nextStateKey) && visited.get(nextStateKey) <= nextGCost) {
-                    continue;
-                }
+    /**
+     * A*：沿父节点链取出从根节点到node的路线并记为主变例
+     */
+    private void recordPrincipalVariation(GameState rootState, int node) {
+        int[] line = new int[openList.gCost(node)];
+        for (int n = node; openList.parent(n) != OpenList.NONE; n = openList.parent(n)) {
+            line[openList.gCost(n) - 1] = openList.move(n);
+        }
+        recordPrincipalVariation(rootState, line, line.length);
+    }
 
-                // 剪枝2：目标棋子被捕获（绝对禁止）
-                int targetIndex = targetPiece - 1;
-                if (nextState.getCurrentPositions()[targetIndex] == -1) {
-                    continue;
-                }
+    /**
+     * 把根节点的第一步（紧凑编码，NO_MOVE表示根节点本身）换成MoveCodec编码
+     */
+    private static int rootMove(GameState rootState, int firstMove) {
+        return firstMove == NO_MOVE ? MoveCodec.NONE : MoveCodec.of(rootState, firstMove);
+    }
 
-                // 剪枝3：吃目标棋子（双重校验，绝对禁止）
-                if (isEatTargetMove(move, currentNode.gameState)) {
-                    continue;
-                }
+    /**
+     * 生成A*子节点并加入开放列表：nextState为已走子的状态（调用方负责悔棋），被剪枝时不加入
+     */
+    private void pushChildNode(int parent, GameState nextState, int undo, int maxDepth) {
+        int pieceNum = GameState.undoPiece(undo);
+        int toPos = nextState.positionOf(pieceNum);
+        long nextStateKey = nextState.getHash();
+        int nextGCost = openList.gCost(parent) + 1;
+        int nextDiceIndex = openList.diceIndex(parent) + 1;
+
+        // 剪枝1：已访问且步数更多（表项的value为到达该状态的最少步数）
+        long entry = visited.probe(nextStateKey);
+        stats.ttProbe(entry != TranspositionTable.MISS);
+        if (entry != TranspositionTable.MISS && TranspositionTable.value(entry) <= nextGCost) {
+            stats.pruned(SearchStats.RULE_VISITED);
+            return;
+        }
 
-                // 计算启发代价（强化下一步骰子适配）
-                int nextHeuristic = calculateHeuristic(nextState, nextDiceIndex);
+        // 残局库：剩余步数内无法获胜则剪枝，必胜则启发代价记为0（出队时直接返回）
+        int endgame = probeEndgame(nextState, maxDepth - nextGCost);
+        if (endgame == ENDGAME_LOSS) {
+            stats.pruned(SearchStats.RULE_ENDGAME);
+            return;
+        }
 
-                // 剪枝4：启发代价>剩余步数
-                if (nextHeuristic > (maxDepth - nextGCost)) {
-                    continue;
-                }
+        // 剪枝2~5
+        long nextFeatures = evaluator.updateFeatures(openList.features(parent), nextState, undo);
+        int nextHeuristic = endgame == ENDGAME_WIN
+                ? 0
+                : evaluateChild(nextState, undo, nextFeatures, nextGCost, nextDiceIndex, maxDepth);
+        if (nextHeuristic == PRUNED) {
+            return;
+        }
+
+        int move = GameState.encodeMove(pieceNum, toPos);
+        int firstMove = openList.firstMove(parent) == NO_MOVE ? move : openList.firstMove(parent);
+        // depth记为剩余步数，深度优先替换时保留离根更近的状态
+        visited.store(nextStateKey, maxDepth - nextGCost, TranspositionTable.BOUND_EXACT, nextGCost, 0);
+        int node = openList.push(nextState.toPacked(), nextFeatures, firstMove, move, parent, nextGCost, nextHeuristic, nextDiceIndex);
+        if (endgame == ENDGAME_WIN) {
+            // 查表结果记在节点上，出队时不再重复查询
+            openList.markProven(node);
+        }
+    }
+
+    /**
+     * 子节点剪枝规则2~5（A*与IDA*共用）：返回子节点启发代价，被剪枝时返回PRUNED
+     */
+    private int evaluateChild(GameState nextState, int undo, long nextFeatures, int nextGCost, int nextDiceIndex, int maxDepth) {
+        int pieceNum = GameState.undoPiece(undo);
+        int capturedPiece = GameState.undoCaptured(undo);
+        int toPos = nextState.positionOf(pieceNum);
+
+        // 剪枝3：本步吃掉目标棋子（绝对禁止）；先于剪枝2检查，吃子都记在这一项
+        if (capturedPiece == targetPiece) {
+            stats.pruned(SearchStats.RULE_CAPTURES_TARGET);
+            return PRUNED;
+        }
+
+        // 剪枝2：目标棋子已不在棋盘上（双重校验，绝对禁止）
+        if (nextState.positionOf(targetPiece) == -1) {
+            stats.pruned(SearchStats.RULE_TARGET_CAPTURED);
+            return PRUNED;
+        }
+
+        // 剪枝4：可证下界>剩余步数（切比雪夫距离，且只计骰子能移动目标的回合，不会剪掉获胜路径）
+        if (getDiceBound().lowerBound(nextState) > (maxDepth - nextGCost)) {
+            stats.pruned(SearchStats.RULE_HEURISTIC);
+            return PRUNED;
+        }
+
+        // 计算启发代价（强化下一步骰子适配）：A*的出队顺序和IDA*的走法顺序，不再用于剪枝和阈值
+        int nextHeuristic = calculateHeuristic(nextState, nextDiceIndex, nextFeatures);
+
+        // 剪枝5：非目标棋子阻挡目标路径且不吃子
+        if (pieceNum != targetPiece) {
+            boolean blocksPath = BoardTables.isOnPath(nextState.positionOf(targetPiece), toPos);
+            boolean eatsPiece = capturedPiece != 0;
+            if (blocksPath && !eatsPiece) {
+                stats.pruned(SearchStats.RULE_BLOCKS_PATH);
+                return PRUNED;
+            }
+        }
+        return nextHeuristic;
+    }
 
-                // 剪枝5：非目标棋子阻挡目标路径且不吃子
-                if (move.getPieceNum() != targetPiece) {
-                    int[] targetPath = getManhattanPath(nextState.getCurrentPositions()[targetIndex], 0);
-                    boolean blocksPath = Arrays.stream(targetPath).anyMatch(pos -> pos == move.getToPos());
-                    boolean eatsPiece = isEatMove(move, currentNode.gameState);
-                    if (blocksPath && !eatsPiece) {
-                        continue;
-                    }
+    /**
+     * IDA*搜索：内存只与深度线性相关（单一可变状态+每层一个走法缓冲区），
+     * f值用DiceBound的可证下界（不高估剩余步数，阈值以内的获胜路径一定能找到），每轮阈值取上一轮超出阈值的最小f值；
+     * 跨回合沿用上一回合的阈值作为起点
+     */
+    private int idaStarSearch(GameState rootState, int maxDepth) {
+        if (idaBuffers.length < maxDepth + 1) {
+            idaBuffers = new int[maxDepth + 1][GameState.MAX_MOVES];
+            idaScores = new int[maxDepth + 1][GameState.MAX_MOVES];
+            idaLine = new int[maxDepth + 1];
+            idaFeatures = new long[maxDepth + 1];
+        }
+        int rootIndex = rootState.getDiceIndex();
+        int rootDice = rootState.getCurrentDice();
+        setDice(rootState, currentDiceIndex);
+        frontierBestMove = NO_MOVE;
+        frontierBestH = Integer.MAX_VALUE;
+        try {
+            // 上次找到的是最短路线，其长度减去此后实际走过的步数（包括按主变例直接走的）仍是本回合的下界，可作为起始阈值
+            idaFeatures[0] = evaluator.computeFeatures(rootState);
+            int played = currentMoveCount - lastIdaMoveCount;
+            int carried = lastIdaThreshold > 0 && played > 0 ? lastIdaThreshold - played : 0;
+            int threshold = Math.max(getDiceBound().lowerBound(rootState), carried);
+            while (threshold <= maxDepth) {
+                int result = idaSearch(rootState, 0, currentDiceIndex, threshold, maxDepth);
+                if (searchTimedOut) {
+                    return MoveCodec.NONE;
+                }
+                if (result == FOUND) {
+                    lastIdaThreshold = threshold;
+                    lastIdaMoveCount = currentMoveCount;
+                    recordPrincipalVariation(rootState, idaLine, idaFoundDepth);
+                    return MoveCodec.of(rootState, idaLine[0]);
                 }
+                if (result == Integer.MAX_VALUE) {
+                    break; // 没有超出阈值的节点：在步数限制内无解
+                }
+                threshold = result;
+            }
+            lastIdaThreshold = 0;
+            return MoveCodec.NONE;
+        } finally {
+            rootState.setDiceIndex(rootIndex);
+            rootState.setCurrentDice(rootDice);
+        }
+    }
 
-                Move firstMove = currentNode.firstMove == null ? move : currentNode.firstMove;
-                openSet.add(new Node(nextState, firstMove, nextGCost, nextHeuristic, nextDiceIndex));
-                visited.put(nextStateKey, nextGCost);
+    /**
+     * IDA*深度优先一轮：找到返回FOUND（路径记入idaLine），否则返回超出阈值的最小f值
+     */
+    private int idaSearch(GameState state, int gCost, int diceIndex, int threshold, int maxDepth) {
+        if (state.isWinning()) {
+            idaFoundDepth = gCost;
+            return FOUND;
+        }
+        if (gCost >= maxDepth || deadlineReached()) {
+            return Integer.MAX_VALUE;
+        }
+        // 残局库：直接得出结果（根节点已在chooseMove中查表）
+        if (gCost > 0) {
+            int endgame = probeEndgame(state, maxDepth - gCost);
+            if (endgame == ENDGAME_WIN) {
+                idaFoundDepth = gCost;
+                return FOUND;
+            }
+            if (endgame == ENDGAME_LOSS) {
+                stats.pruned(SearchStats.RULE_ENDGAME);
+                return Integer.MAX_VALUE;
             }
         }
-        return null;
+
+        int[] buffer = idaBuffers[gCost];
+        int[] scores = idaScores[gCost];
+        stats.nodeExpanded();
+        stats.openSize(gCost + 1);
+        int moveCount = state.generateMoves(buffer);
+
+        // 第一遍：剪枝，并按启发代价把保留的走法排到缓冲区前部（启发函数只决定搜索顺序）
+        int childCount = 0;
+        for (int k = 0; k < moveCount; k++) {
+            stats.nodeGenerated();
+            int move = buffer[k];
+            int undo = state.executeMove(move);
+            setDice(state, diceIndex + 1);
+            long nextFeatures = evaluator.updateFeatures(idaFeatures[gCost], state, undo);
+            int nextHeuristic = evaluateChild(state, undo, nextFeatures, gCost + 1, diceIndex + 1, maxDepth);
+            setDice(state, diceIndex);
+            state.undoMove(undo);
+            if (nextHeuristic == PRUNED) {
+                continue;
+            }
+            idaLine[gCost] = move;
+            recordFrontier(nextHeuristic, idaLine[0]);
+            int i = childCount++;
+            while (i > 0 && scores[i - 1] > nextHeuristic) {
+                scores[i] = scores[i - 1];
+                buffer[i] = buffer[i - 1];
+                i--;
+            }
+            scores[i] = nextHeuristic;
+            buffer[i] = move;
+        }
+
+        // 第二遍：按顺序展开，f = g + 可证下界（只计骰子能移动目标的回合，不低于切比雪夫距离）
+        int minExceeded = Integer.MAX_VALUE;
+        for (int k = 0; k < childCount; k++) {
+            int undo = state.executeMove(buffer[k]);
+            setDice(state, diceIndex + 1);
+            idaFeatures[gCost + 1] = evaluator.updateFeatures(idaFeatures[gCost], state, undo);
+            idaLine[gCost] = buffer[k];
+            int f = gCost + 1 + getDiceBound().lowerBound(state);
+            int result = f > threshold ? f : idaSearch(state, gCost + 1, diceIndex + 1, threshold, maxDepth);
+            setDice(state, diceIndex);
+            state.undoMove(undo);
+
+            if (result == FOUND) {
+                return FOUND;
+            }
+            minExceeded = Math.min(minExceeded, result);
+        }
+        return minExceeded;
     }
 
     /**
-     * 启发函数：强化目标棋子向0移动+下一步骰子适配
+     * 本关的可证下界表（按需构建）
+     */
+    private DiceBound getDiceBound() {
+        if (diceBound == null) {
+            diceBound = new DiceBound(targetPiece, diceSequence);
+        }
+        return diceBound;
+    }
+
+    /**
+     * 查询残局库：局面不在库中返回ENDGAME_NONE，否则按movesLeft步内能否获胜返回ENDGAME_WIN或ENDGAME_LOSS
+     */
+    private int probeEndgame(GameState state, int movesLeft) {
+        if (tablebase == null || !tablebase.covers(state)) {
+            return ENDGAME_NONE;
+        }
+        stats.tablebaseHit();
+        int value = tablebase.probe(state);
+        return value != EndgameTablebase.NO_WIN && value <= movesLeft ? ENDGAME_WIN : ENDGAME_LOSS;
+    }
+
+    /**
+     * 当前局面的启发值（按局面自身的骰子索引计算，供基准测试和调试使用）
+     */
+    public int evaluate(GameState state) {
+        return calculateHeuristic(state, state.getDiceIndex());
+    }
+
+    /**
+     * 启发函数（根节点）：从头计算局面特征
      */
     private int calculateHeuristic(GameState state, int diceIndex) {
-        int targetIndex = targetPiece - 1;
-        int targetPos = state.getCurrentPositions()[targetIndex];
+        return calculateHeuristic(state, diceIndex, evaluator.computeFeatures(state));
+    }
+
+    /**
+     * 启发函数：强化目标棋子向0移动+下一步骰子适配；
+     * 阻挡数、目标可吃子、靠近奖励取自增量维护的局面特征（见HeuristicEvaluator）
+     */
+    private int calculateHeuristic(GameState state, int diceIndex, long features) {
+        int targetPos = state.positionOf(targetPiece);
 
         // 目标棋子被吃（绝对无效）
         if (targetPos == -1) return Integer.MAX_VALUE;
@@ -157,12 +722,9 @@ public class AIPlayer extends Player {
         // 1. 核心代价：目标到0的曼哈顿距离（权重最高）
         int heuristic = calculateDistance(targetPos, 0) * 2;
 
-        // 2. 奖励：目标棋子能吃非目标棋子（减3）
-        List<Move> targetMoves = state.generatePossibleMoves().stream()
-                .filter(m -> m.getPieceNum() == targetPiece)
-                .filter(m -> isEatMove(m, state))
-                .toList();
-        if (!targetMoves.isEmpty()) {
+        // 2. 奖励：目标棋子能吃非目标棋子（减3）：目标本回合可走且周围有非目标棋子
+        boolean targetMovable = (GameState.movableMask(state.getCurrentDice(), state.getAliveMask()) & (1 << (targetPiece - 1))) != 0;
+        if (targetMovable && HeuristicEvaluator.targetNeighbors(features) > 0) {
             heuristic -= 3;
         }
 
@@ -175,10 +737,10 @@ public class AIPlayer extends Player {
         }
 
         // 4. 惩罚：非目标棋子阻挡目标路径（加2/个）
-        heuristic += countObstaclesOnPath(state, targetPos, 0) * 2;
+        heuristic += HeuristicEvaluator.blockers(features) * 2;
 
         // 5. 奖励：非目标棋子靠近可被吃的棋子（减1）
-        heuristic -= calculateNonTargetProximityBonus(state);
+        heuristic -= HeuristicEvaluator.proximityBonus(features);
 
         return Math.max(heuristic, 0);
     }
@@ -186,43 +748,49 @@ public class AIPlayer extends Player {
     /**
      * 贪心策略：严格遵循用户决策逻辑（修复：删除未使用变量targetIndex/currentPositions）
      */
-    private Move getGreedyBestMove(GameState gameState, List<Move> possibleMoves) {
-        // 步骤1：筛选可选移动的棋子（去重）
-        Set<Integer> movablePieces = possibleMoves.stream()
-                .map(Move::getPieceNum)
-                .collect(Collectors.toSet());
+    private int getGreedyBestMove(GameState gameState, int[] moves, int count) {
+        // 步骤1：可选棋子是否包含目标棋子
+        boolean targetMovable = false;
+        for (int i = 0; i < count; i++) {
+            targetMovable |= MoveCodec.piece(moves[i]) == targetPiece;
+        }
 
         // 步骤2：若可选棋子包含目标棋子→优先移动目标（向0+吃子）
-        if (movablePieces.contains(targetPiece)) {
-            return getTargetPieceMove(possibleMoves, gameState);
+        if (targetMovable) {
+            return getTargetPieceMove(moves, count);
         }
 
         // 步骤3：可选棋子无目标→预判下一步骰子，选对后续移动目标最有利的移动
         // 修复：删除未使用参数movablePieces
-        return getOptimalNonTargetMove(gameState, possibleMoves);
+        return getOptimalNonTargetMove(gameState, moves, count);
     }
 
     /**
      * 移动目标棋子：向0靠近（优先吃非目标棋子）（修复：优化hasEatMove逻辑）
      */
-    private Move getTargetPieceMove(List<Move> possibleMoves, GameState gameState) {
-        Move bestMove = null;
+    private int getTargetPieceMove(int[] moves, int count) {
+        int bestMove = MoveCodec.NONE;
+        int firstTargetMove = MoveCodec.NONE;
         int minDistance = Integer.MAX_VALUE;
         boolean hasEatMove = false;
 
-        for (Move move : possibleMoves) {
-            if (move.getPieceNum() != targetPiece) {
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            if (MoveCodec.piece(move) != targetPiece) {
                 continue;
             }
+            if (firstTargetMove == MoveCodec.NONE) {
+                firstTargetMove = move;
+            }
 
             // 跳过吃目标棋子的移动（双重保护）
-            if (isEatTargetMove(move, gameState)) {
+            if (isEatTargetMove(move)) {
                 continue;
             }
 
-            int toPos = move.getToPos();
+            int toPos = MoveCodec.to(move);
             int distance = calculateDistance(toPos, 0);
-            boolean isEat = isEatMove(move, gameState);
+            boolean isEat = isEatMove(move);
 
             // 修复：动态更新hasEatMove，避免始终为true
             if (isEat) {
@@ -239,50 +807,47 @@ public class AIPlayer extends Player {
             }
         }
 
-        // 修复：用getFirst简化Stream调用
-        return bestMove != null ? bestMove : possibleMoves.stream()
-                .filter(m -> m.getPieceNum() == targetPiece)
-                .findFirst()
-                .orElse(null);
+        return bestMove != MoveCodec.NONE ? bestMove : firstTargetMove;
     }
 
     /**
      * 无目标棋子时：预判下一步骰子，选最优非目标移动（修复：删除未使用参数movablePieces）
      */
-    private Move getOptimalNonTargetMove(GameState gameState, List<Move> possibleMoves) {
-        Move bestMove = null;
+    private int getOptimalNonTargetMove(GameState gameState, int[] moves, int count) {
+        int bestMove = MoveCodec.NONE;
         int maxScore = Integer.MIN_VALUE;
         int nextDice = getNextDice(); // 重点：仅预判下一步骰子
 
-        for (Move move : possibleMoves) {
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
             int score = 0;
-            int pieceNum = move.getPieceNum();
-            int toPos = move.getToPos();
+            int pieceNum = MoveCodec.piece(move);
+            int toPos = MoveCodec.to(move);
 
-            // 模拟移动后的游戏状态
-            GameState simulatedState = copyGameState(gameState);
-            simulatedState.executeMove(move);
+            // 模拟移动后的游戏状态（走子后立即悔棋，不复制状态）
+            int undo = gameState.executeMove(MoveCodec.encoded(move));
+            boolean canMoveTarget = canMoveTargetNextStep(gameState, nextDice);
+            gameState.undoMove(undo);
 
             // 加分1：移动后下一步能移动目标棋子（权重最高，6分）
-            if (canMoveTargetNextStep(simulatedState, nextDice)) {
+            if (canMoveTarget) {
                 score += 6;
             }
 
             // 加分2：吃非目标棋子（5分）
-            if (isEatMove(move, gameState)) {
+            if (isEatMove(move)) {
                 score += 5;
             }
 
             // 加分3：吃掉阻挡目标路径的棋子（额外加2分）
-            if (isEatMove(move, gameState)) {
-                int blockedPos = move.getToPos();
-                if (isOnTargetPath(gameState, blockedPos)) {
+            if (isEatMove(move)) {
+                if (isOnTargetPath(gameState, toPos)) {
                     score += 2;
                 }
             }
 
             // 加分4：靠近其他棋子（方便后续吃子/被吃，3分）
-            int minDistToOthers = calculateMinDistanceToOtherPieces(toPos, gameState.getCurrentPositions(), pieceNum);
+            int minDistToOthers = calculateMinDistanceToOtherPieces(toPos, gameState, pieceNum);
             score += (3 - minDistToOthers);
 
             // 加分5：远离目标路径（2分）
@@ -297,8 +862,7 @@ public class AIPlayer extends Player {
             }
         }
 
-        // 修复：用getFirst简化Stream调用
-        return bestMove != null ? bestMove : possibleMoves.stream().findFirst().orElse(null);
+        return bestMove != MoveCodec.NONE || count == 0 ? bestMove : moves[0];
     }
 
     // ---------------------- 新增/强化的辅助方法 ----------------------
@@ -310,78 +874,50 @@ public class AIPlayer extends Player {
         return (nextDiceIndex < diceSequence.length) ? diceSequence[nextDiceIndex] : -1;
     }
 
+    /**
+     * 把状态切换到第diceIndex颗骰子（序列用完则骰子为0，无棋可走）
+     */
+    private void setDice(GameState state, int diceIndex) {
+        state.setDiceIndex(diceIndex);
+        state.setCurrentDice(diceIndex < diceSequence.length ? diceSequence[diceIndex] : 0);
+    }
+
     /**
      * 判断下一步是否能移动目标棋子
      */
     private boolean canMoveTargetNextStep(GameState state, int nextDice) {
-        if (nextDice == -1) return false;
-
-        int targetIndex = targetPiece - 1;
-        // 目标棋子已被吃
-        if (state.getCurrentPositions()[targetIndex] == -1) return false;
-
-        List<Integer> existingPieces = getExistingPieces(state);
-
-        // 情况1：下一步骰子直接匹配目标棋子
-        if (nextDice == targetPiece) {
-            return existingPieces.contains(targetPiece);
-        }
-
-        // 情况2：下一步骰子无匹配，目标是minBigger或maxSmaller
-        if (!existingPieces.contains(nextDice)) {
-            Integer minBigger = getMinBigger(existingPieces, nextDice);
-            Integer maxSmaller = getMaxSmaller(existingPieces, nextDice);
-            return (minBigger != null && minBigger == targetPiece) || (maxSmaller != null && maxSmaller == targetPiece);
-        }
-
-        return false;
+        // 骰子直接匹配目标棋子，或无匹配棋子时目标是比骰子大的最小/比骰子小的最大棋子（查表，见BoardTables.MOVABLE）
+        return (GameState.movableMask(nextDice, state.getAliveMask()) & (1 << (targetPiece - 1))) != 0;
     }
 
     /**
      * 双重校验：是否为吃目标棋子的移动（绝对禁止）
      */
-    private boolean isEatTargetMove(Move move, GameState gameState) {
-        int targetIndex = targetPiece - 1;
-        int toPos = move.getToPos();
-        int[] positions = gameState.getCurrentPositions();
-
-        for (int i = 0; i < 6; i++) {
-            if (i == targetIndex && positions[i] == toPos) {
-                return true;
-            }
-        }
-        return false;
+    private boolean isEatTargetMove(int move) {
+        return MoveCodec.captured(move) == targetPiece;
     }
 
     // ---------------------- 原有辅助方法（保持不变，删除未使用的hasObstacleOnPath） ----------------------
     /**
      * 检查移动是否为吃非目标棋子
      */
-    private boolean isEatMove(Move move, GameState gameState) {
-        int targetIndex = targetPiece - 1;
-        int toPos = move.getToPos();
-        int[] positions = gameState.getCurrentPositions();
-
-        for (int i = 0; i < 6; i++) {
-            if (i != targetIndex && positions[i] == toPos) {
-                return true;
-            }
-        }
-        return false;
+    private boolean isEatMove(int move) {
+        int captured = MoveCodec.captured(move);
+        return captured != 0 && captured != targetPiece;
     }
 
     /**
      * 计算非目标棋子到其他棋子的最小距离
      */
-    private int calculateMinDistanceToOtherPieces(int pos, int[] currentPositions, int currentPieceNum) {
+    private int calculateMinDistanceToOtherPieces(int pos, GameState state, int currentPieceNum) {
         int minDist = Integer.MAX_VALUE;
-        int currentPieceIndex = currentPieceNum - 1;
 
-        for (int i = 0; i < 6; i++) {
-            if (i == currentPieceIndex || currentPositions[i] == -1 || (i + 1) == targetPiece) {
+        for (int piece = 1; piece <= 6; piece++) {
+            int otherPos = state.positionOf(piece);
+            if (piece == currentPieceNum || otherPos == -1 || piece == targetPiece) {
                 continue;
             }
-            int dist = calculateDistance(pos, currentPositions[i]);
+            int dist = calculateDistance(pos, otherPos);
             if (dist < minDist) {
                 minDist = dist;
             }
@@ -390,123 +926,14 @@ public class AIPlayer extends Player {
         return minDist == Integer.MAX_VALUE ? 3 : minDist;
     }
 
-    /**
-     * 非目标棋子靠近其他棋子的奖励
-     */
-    private int calculateNonTargetProximityBonus(GameState state) {
-        int bonus = 0;
-        int[] positions = state.getCurrentPositions();
-
-        for (int i = 0; i < 6; i++) {
-            if ((i + 1) == targetPiece || positions[i] == -1) {
-                continue;
-            }
-
-            int minDist = calculateMinDistanceToOtherPieces(positions[i], positions, i + 1);
-            if (minDist == 0) bonus += 1;
-            else if (minDist == 1) bonus += 1;
-        }
-
-        return bonus;
-    }
-
-    /**
-     * 获取目标棋子到0点的曼哈顿路径
-     */
-    private int[] getManhattanPath(int fromPos, int toPos) {
-        List<Integer> path = new ArrayList<>();
-        int fromRow = fromPos / 10, fromCol = fromPos % 10;
-        int toRow = toPos / 10, toCol = toPos % 10;
-
-        int currRow = fromRow, currCol = fromCol;
-        while (currRow > toRow || currCol > toCol) {
-            if (currRow > toRow) currRow--;
-            if (currCol > toCol) currCol--;
-            int pos = currRow * 10 + currCol;
-            if (pos != 22) path.add(pos);
-        }
-        return path.stream().mapToInt(Integer::intValue).toArray();
-    }
-
-    /**
-     * 统计目标路径上的阻挡数
-     */
-    private int countObstaclesOnPath(GameState state, int fromPos, int toPos) {
-        int[] path = getManhattanPath(fromPos, toPos);
-        int targetIndex = targetPiece - 1;
-        int[] positions = state.getCurrentPositions();
-        int count = 0;
-
-        for (int pos : path) {
-            for (int i = 0; i < 6; i++) {
-                if (i != targetIndex && positions[i] == pos) {
-                    count++;
-                    break;
-                }
-            }
-        }
-        return count;
-    }
-
     /**
      * 检查位置是否在目标路径上
      */
     private boolean isOnTargetPath(GameState state, int pos) {
-        int targetIndex = targetPiece - 1;
-        int targetPos = state.getCurrentPositions()[targetIndex];
+        int targetPos = state.positionOf(targetPiece);
         if (targetPos == -1 || targetPos == 0) return false;
 
-        int[] path = getManhattanPath(targetPos, 0);
-        return Arrays.stream(path).anyMatch(p -> p == pos);
-    }
-
-    /**
-     * 获取当前存在的棋子（非-1）
-     */
-    private List<Integer> getExistingPieces(GameState state) {
-        List<Integer> pieces = new ArrayList<>();
-        int[] positions = state.getCurrentPositions();
-        for (int i = 0; i < 6; i++) {
-            if (positions[i] != -1) {
-                pieces.add(i + 1);
-            }
-        }
-        return pieces;
-    }
-
-    /**
-     * 获取大于骰子数的最小棋子
-     */
-    private Integer getMinBigger(List<Integer> pieces, int dice) {
-        return pieces.stream().filter(p -> p > dice).min(Integer::compare).orElse(null);
-    }
-
-    /**
-     * 获取小于骰子数的最大棋子
-     */
-    private Integer getMaxSmaller(List<Integer> pieces, int dice) {
-        return pieces.stream().filter(p -> p < dice).max(Integer::compare).orElse(null);
-    }
-
-    /**
-     * 复制游戏状态
-     */
-    private GameState copyGameState(GameState original) {
-        int[] newPositions = original.getCurrentPositions().clone();
-        GameState copy = new GameState(newPositions, targetPiece);
-        copy.setCurrentDice(original.getCurrentDice());
-        return copy;
-    }
-
-    /**
-     * 生成游戏状态唯一键
-     */
-    private String getStateKey(GameState state) {
-        StringBuilder sb = new StringBuilder();
-        int[] positions = state.getCurrentPositions();
-        for (int pos : positions) sb.append(pos).append(",");
-        sb.append(state.getCurrentDice()).append(",").append(currentDiceIndex);
-        return sb.toString();
+        return BoardTables.isOnPath(targetPos, pos);
     }
 
     /**
@@ -517,25 +944,4 @@ public class AIPlayer extends Player {
         int row2 = pos2 / 10, col2 = pos2 % 10;
         return Math.abs(row1 - row2) + Math.abs(col1 - col2);
     }
-
-    /**
-     * A*搜索节点类
-     */
-    private static class Node {
-        GameState gameState;
-        Move firstMove;
-        int gCost;
-        int hCost;
-        int totalCost;
-        int diceIndex;
-
-        Node(GameState gameState, Move firstMove, int gCost, int hCost, int diceIndex) {
-            this.gameState = gameState;
-            this.firstMove = firstMove;
-            this.gCost = gCost;
-            this.hCost = hCost;
-            this.totalCost = gCost + hCost;
-            this.diceIndex = diceIndex;
-        }
-    }
 }
@@ -0,0 +1,321 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Headless batch runner: plays many games for every (level file, player type) pair in parallel
+// and reports win rate, moves used against the level budget and per-move latency.
+// Nothing is written to moves.txt, so batches never interfere with each other or with GameMain.
+//
+// Usage: java BatchRunner [--games N] [--threads T] [--players random,ai,ai-ida_star,mcts]
+//                         [--mcts-threads M] [--time-limit MS] [--max-moves N] [--archive FILE] level1.txt level2.txt ...
+// --archive appends every game to a binary archive (see BinaryGameWriter)
+// --mcts-threads sets the tree-search threads of each MCTS player; by default the cores are shared out among
+// the T games running at once, so the batch does not start more search threads than there are cores
+// Player types: random, mcts, ai (default search mode), ai-<mode> for any AIPlayer.SearchMode
+public class BatchRunner {
+    private static final int MAX_GLOBAL_MOVES = 30; // Same global step limit as GameMain
+    private static final Pattern LEVEL_NUMBER = Pattern.compile("level(\\d+)");
+
+    private final int threads;
+    private final long timeLimitMillis;
+    private final int maxMovesOverride;
+    private int mctsThreads = 1;      // Search threads of each MCTS player
+    private BinaryGameWriter archive; // Receives every finished game when set
+
+    public BatchRunner(int threads, long timeLimitMillis, int maxMovesOverride) {
+        this.threads = Math.max(1, threads);
+        this.timeLimitMillis = timeLimitMillis;
+        this.maxMovesOverride = maxMovesOverride;
+    }
+
+    public void setMctsThreads(int mctsThreads) {
+        this.mctsThreads = Math.max(1, mctsThreads);
+    }
+
+    public void setArchive(BinaryGameWriter archive) {
+        this.archive = archive;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int games = 100;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int mctsThreads = 0; // 0 = share the cores among the games running at once
+        long timeLimit = 0;
+        int maxMoves = 0;
+        String archiveFile = null;
+        List<String> players = new ArrayList<>(Arrays.asList("random", "ai"));
+        List<String> levels = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--games" -> games = Integer.parseInt(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--players" -> players = Arrays.asList(args[++i].split(","));
+                case "--mcts-threads" -> mctsThreads = Integer.parseInt(args[++i]);
+                case "--time-limit" -> timeLimit = Long.parseLong(args[++i]);
+                case "--max-moves" -> maxMoves = Integer.parseInt(args[++i]);
+                case "--archive" -> archiveFile = args[++i];
+                default -> levels.add(args[i]);
+            }
+        }
+        if (levels.isEmpty()) {
+            levels = Arrays.asList("level1.txt", "level2.txt", "level3.txt", "level4.txt");
+        }
+
+        BatchRunner runner = new BatchRunner(threads, timeLimit, maxMoves);
+        runner.setMctsThreads(mctsThreads > 0 ? mctsThreads
+                : Runtime.getRuntime().availableProcessors() / Math.max(1, threads));
+        BinaryGameWriter archive = archiveFile == null ? null : new BinaryGameWriter(archiveFile, true);
+        runner.setArchive(archive);
+        List<Result> results;
+        try {
+            results = runner.run(levels, players, games);
+        } finally {
+            // Write the buffered tail of the archive also when a game fails
+            if (archive != null) {
+                archive.close();
+            }
+        }
+        System.out.println(String.format("%-12s %-14s %6s %7s %8s %11s %10s %10s %10s %10s",
+                "level", "player", "games", "win%", "budget%", "avg moves", "avg us", "p99 us", "max us", "nodes/move"));
+        for (Result result : results) {
+            System.out.println(result.format());
+        }
+    }
+
+    // Play `games` games for every level and player type; results come back in input order
+    public List<Result> run(List<String> levelFiles, List<String> playerTypes, int games) throws Exception {
+        Map<String, Result> results = new LinkedHashMap<>();
+        List<Future<?>> pending = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (String levelFile : levelFiles) {
+                GameLoader loader = new GameLoader(levelFile);
+                if (loader.getDiceSequence() == null) {
+                    continue; // GameLoader already reported the error
+                }
+                int maxMoves = maxMovesOverride > 0 ? maxMovesOverride : GameMain.maxMovesForLevel(levelNumber(levelFile));
+                EndgameTablebase tablebase = EndgameTablebase.openIfPresent(EndgameTablebase.tableFileFor(levelFile),
+                        loader.getTargetPiece(), loader.getDiceSequence());
+                for (String playerType : playerTypes) {
+                    Result result = new Result(levelFile, playerType, maxMoves);
+                    results.put(levelFile + "/" + playerType, result);
+                    for (int g = 0; g < games; g++) {
+                        pending.add(executor.submit(() -> result.add(playGame(loader, playerType, maxMoves, tablebase))));
+                    }
+                }
+            }
+            for (Future<?> future : pending) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return new ArrayList<>(results.values());
+    }
+
+    // Play one game with a fresh player; mirrors the GameMain loop without console or file output
+    private GameRecord playGame(GameLoader loader, String playerType, int maxMoves, EndgameTablebase tablebase) {
+        int targetPiece = loader.getTargetPiece();
+        int[] diceSequence = loader.getDiceSequence().clone();
+        Player player = createPlayer(playerType, targetPiece, diceSequence, maxMoves, tablebase);
+        player.setMovesFile(null);
+
+        GameState gameState = new GameState(loader.getInitialPositions(), targetPiece);
+        long[] latencies = new long[MAX_GLOBAL_MOVES];
+        int[] moves = new int[MAX_GLOBAL_MOVES];
+        long nodes = 0;
+        int moveCount = 0;
+        boolean isWin = false;
+        while (moveCount < MAX_GLOBAL_MOVES) {
+            if (gameState.isWinning()) {
+                isWin = true;
+                break;
+            }
+            if (moveCount >= diceSequence.length) {
+                break;
+            }
+            gameState.setCurrentDice(diceSequence[moveCount]);
+            gameState.setDiceIndex(moveCount);
+            if (player instanceof AIPlayer) {
+                ((AIPlayer) player).setCurrentDiceIndex(moveCount);
+            }
+
+            long start = System.nanoTime();
+            Move move = player.chooseMove(gameState);
+            latencies[moveCount] = System.nanoTime() - start;
+            if (player instanceof AIPlayer) {
+                SearchStats stats = ((AIPlayer) player).getLastSearchStats();
+                nodes += stats.getNodesGenerated() + stats.getSolverNodes();
+            }
+            if (move == null) {
+                break;
+            }
+            gameState.executeMove(move);
+            moves[moveCount] = GameState.encodeMove(move.getPieceNum(), move.getToPos());
+            moveCount++;
+        }
+        if (!isWin && gameState.isWinning()) {
+            isWin = true; // Won with the very last allowed move
+        }
+        if (archive != null) {
+            archive.writeGame(player.getName(), diceSequence, targetPiece, loader.getInitialPositions(), moves, moveCount);
+        }
+        return new GameRecord(isWin, moveCount, Arrays.copyOf(latencies, moveCount), nodes);
+    }
+
+    // Create a player of the given type, configured like GameMain does
+    private Player createPlayer(String playerType, int targetPiece, int[] diceSequence, int maxMoves,
+                                EndgameTablebase tablebase) {
+        String type = playerType.toLowerCase();
+        if (type.equals("random")) {
+            return new RandomPlayer();
+        }
+        if (type.equals("mcts")) {
+            MctsPlayer player = new MctsPlayer();
+            player.setTargetPiece(targetPiece);
+            player.setMaxAllowedMoves(maxMoves);
+            player.setThreads(mctsThreads);
+            if (timeLimitMillis > 0) {
+                player.setTimeBudgetMillis(timeLimitMillis);
+            }
+            return player;
+        }
+        if (type.equals("ai") || type.startsWith("ai-")) {
+            AIPlayer player = new AIPlayer();
+            player.setTargetPiece(targetPiece);
+            player.setDiceSequence(diceSequence);
+            player.setMaxAllowedMoves(maxMoves);
+            player.setMoveTimeLimitMillis(timeLimitMillis);
+            player.setTablebase(tablebase);
+            if (type.startsWith("ai-")) {
+                AIPlayer.SearchMode mode = AIPlayer.SearchMode.valueOf(type.substring(3).toUpperCase());
+                player.setSearchMode(mode);
+                if (mode == AIPlayer.SearchMode.PARALLEL) {
+                    player.setParallelSearch(ForkJoinPool.commonPool(), 1);
+                }
+            }
+            player.resetMoveCount();
+            return player;
+        }
+        throw new IllegalArgumentException("Unknown player type: " + playerType);
+    }
+
+    // Level number from a file name such as "level3.txt" (0 if there is none, which maps to the default budget)
+    static int levelNumber(String levelFile) {
+        Matcher matcher = LEVEL_NUMBER.matcher(levelFile);
+        int number = 0;
+        while (matcher.find()) {
+            number = Integer.parseInt(matcher.group(1));
+        }
+        return number;
+    }
+
+    // Outcome of one game
+    private static class GameRecord {
+        final boolean won;
+        final int moves;
+        final long[] latencies; // Nanoseconds spent in chooseMove, one per move played
+        final long nodes;       // Search nodes over all moves (AIPlayer only, see SearchStats)
+
+        GameRecord(boolean won, int moves, long[] latencies, long nodes) {
+            this.won = won;
+            this.moves = moves;
+            this.latencies = latencies;
+            this.nodes = nodes;
+        }
+    }
+
+    // Aggregated outcome of all games for one level and player type
+    public static class Result {
+        private final String levelFile;
+        private final String playerType;
+        private final int maxMoves;
+        private int games;
+        private int wins;
+        private int winsWithinBudget;
+        private long movesOnWins;
+        private long nodes;
+        private long[] latencies = new long[256];
+        private int latencyCount;
+
+        Result(String levelFile, String playerType, int maxMoves) {
+            this.levelFile = levelFile;
+            this.playerType = playerType;
+            this.maxMoves = maxMoves;
+        }
+
+        synchronized void add(GameRecord record) {
+            games++;
+            nodes += record.nodes;
+            if (record.won) {
+                wins++;
+                movesOnWins += record.moves;
+                if (record.moves <= maxMoves) {
+                    winsWithinBudget++;
+                }
+            }
+            if (latencyCount + record.latencies.length > latencies.length) {
+                latencies = Arrays.copyOf(latencies, Math.max(latencies.length * 2, latencyCount + record.latencies.length));
+            }
+            System.arraycopy(record.latencies, 0, latencies, latencyCount, record.latencies.length);
+            latencyCount += record.latencies.length;
+        }
+
+        public synchronized int getGames() {
+            return games;
+        }
+
+        // Fraction of games where the target reached 0 at all
+        public synchronized double winRate() {
+            return games == 0 ? 0 : (double) wins / games;
+        }
+
+        // Fraction of games won within the level's maxAllowedMoves
+        public synchronized double budgetWinRate() {
+            return games == 0 ? 0 : (double) winsWithinBudget / games;
+        }
+
+        // Average number of moves of the won games
+        public synchronized double averageWinningMoves() {
+            return wins == 0 ? 0 : (double) movesOnWins / wins;
+        }
+
+        // Per-move latency percentile in nanoseconds (0.5 = median)
+        public synchronized long latencyPercentile(double percentile) {
+            if (latencyCount == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(latencies, latencyCount);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.min(latencyCount - 1, Math.round(percentile * (latencyCount - 1)))];
+        }
+
+        // Average search nodes per move played
+        public synchronized double averageNodesPerMove() {
+            return latencyCount == 0 ? 0 : (double) nodes / latencyCount;
+        }
+
+        public synchronized double averageLatencyNanos() {
+            long total = 0;
+            for (int i = 0; i < latencyCount; i++) {
+                total += latencies[i];
+            }
+            return latencyCount == 0 ? 0 : (double) total / latencyCount;
+        }
+
+        String format() {
+            return String.format("%-12s %-14s %6d %6.1f%% %7.1f%% %5.2f / %-3d %10.1f %10.1f %10.1f %10.1f",
+                    new java.io.File(levelFile).getName(), playerType, getGames(), winRate() * 100, budgetWinRate() * 100,
+                    averageWinningMoves(), maxMoves, averageLatencyNanos() / 1000,
+                    latencyPercentile(0.99) / 1000.0, latencyPercentile(1.0) / 1000.0, averageNodesPerMove());
+        }
+    }
+}
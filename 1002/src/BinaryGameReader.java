@@ -0,0 +1,198 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// Cursor over a binary game archive (see BinaryGameWriter for the format)
+// The file is memory-mapped in windows of up to 1 GB, so archives of any size can be read; next() moves
+// to the following game and the accessors read straight from the mapping. The cursor itself is the only
+// object: iterating games and replaying their moves allocates nothing (except getPlayerName()).
+//
+//   try (BinaryGameReader reader = new BinaryGameReader("games.ewnb")) {
+//       while (reader.next()) {
+//           reader.resetReplay();
+//           for (int i = 0; i < reader.getMoveCount(); i++) {
+//               int move = reader.nextMove();   // GameState.encodeMove(piece, to)
+//               int[] positions = reader.replayPositions();
+//           }
+//       }
+//   }
+public class BinaryGameReader implements AutoCloseable {
+    private static final long WINDOW_SIZE = 1L << 30;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    // Offsets (in the current window) of the current game's fields
+    private int recordStart = -1;
+    private int recordEnd;
+    private int diceOffset;
+    private int diceCount;
+    private int targetPiece;
+    private int positionsOffset;
+    private int movesOffset;
+    private int moveCount;
+    private long gameIndex = -1;
+
+    // Replay state
+    private final int[] positions = new int[6];
+    private int replayedMoves;
+
+    public BinaryGameReader(String fileName) throws IOException {
+        channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+        fileSize = channel.size();
+        if (fileSize < BinaryGameWriter.HEADER_SIZE) {
+            channel.close();
+            throw new IOException(fileName + " is not a game archive (file too short)");
+        }
+        map(0);
+        for (int i = 0; i < BinaryGameWriter.MAGIC.length; i++) {
+            if (window.get(i) != BinaryGameWriter.MAGIC[i]) {
+                channel.close();
+                throw new IOException(fileName + " is not a game archive (bad magic)");
+            }
+        }
+        int version = window.get(BinaryGameWriter.MAGIC.length);
+        if (version != BinaryGameWriter.VERSION) {
+            channel.close();
+            throw new IOException(fileName + ": unsupported archive version " + version);
+        }
+        recordEnd = BinaryGameWriter.HEADER_SIZE;
+    }
+
+    private void map(long start) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, fileSize - start));
+    }
+
+    // Move to the next game; false at the end of the archive
+    public boolean next() throws IOException {
+        long absolute = windowStart + recordEnd;
+        if (absolute >= fileSize) {
+            return false;
+        }
+        // Remap when the next record might cross the end of the window
+        if (recordEnd + BinaryGameWriter.MAX_RECORD_SIZE > window.limit() && windowStart + window.limit() < fileSize) {
+            map(absolute);
+        }
+        int offset = (int) (absolute - windowStart);
+        recordStart = offset;
+        int nameLength = byteAt(offset);
+        offset += 1 + nameLength;
+        diceCount = byteAt(offset);
+        diceOffset = offset + 1;
+        offset = diceOffset + (diceCount + 1) / 2;
+        targetPiece = byteAt(offset);
+        positionsOffset = offset + 1;
+        moveCount = byteAt(positionsOffset + 6);
+        movesOffset = positionsOffset + 7;
+        recordEnd = movesOffset + moveCount;
+        if (recordEnd > window.limit()) {
+            throw new IOException("Truncated game record at offset " + (windowStart + recordStart));
+        }
+        gameIndex++;
+        replayedMoves = -1;
+        return true;
+    }
+
+    // Unsigned byte of the current record; a record running past the end of the file is reported with its offset
+    private int byteAt(int offset) throws IOException {
+        if (offset >= window.limit()) {
+            throw new IOException("Truncated game record at offset " + (windowStart + recordStart));
+        }
+        return window.get(offset) & 0xFF;
+    }
+
+    // Index of the current game in the archive (0-based)
+    public long getGameIndex() {
+        return gameIndex;
+    }
+
+    // File offset of the current game record
+    public long getRecordOffset() {
+        return windowStart + recordStart;
+    }
+
+    public String getPlayerName() {
+        int nameLength = window.get(recordStart) & 0xFF;
+        byte[] name = new byte[nameLength];
+        window.get(recordStart + 1, name, 0, nameLength);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    public int getDiceCount() {
+        return diceCount;
+    }
+
+    public int getDice(int index) {
+        int packed = window.get(diceOffset + index / 2);
+        return (index & 1) == 0 ? packed & 0xF : (packed >>> 4) & 0xF;
+    }
+
+    public int getTargetPiece() {
+        return targetPiece;
+    }
+
+    // Initial position of a piece (1-6), -1 if it starts captured
+    public int getInitialPosition(int piece) {
+        int pos = window.get(positionsOffset + piece - 1) & 0xFF;
+        return pos == BinaryGameWriter.CAPTURED ? -1 : pos;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    // Piece (1-6) moved by move i
+    public int getMovePiece(int i) {
+        return ((window.get(movesOffset + i) >>> 3) & 0x7) + 1;
+    }
+
+    // Direction (0-7, see BinaryGameWriter.DIRECTION_DELTAS) of move i
+    public int getMoveDirection(int i) {
+        return window.get(movesOffset + i) & 0x7;
+    }
+
+    // Go back to the initial positions of the current game
+    public void resetReplay() {
+        for (int piece = 1; piece <= 6; piece++) {
+            positions[piece - 1] = getInitialPosition(piece);
+        }
+        replayedMoves = 0;
+    }
+
+    // Play the next move of the current game on the replay positions; returns it as GameState.encodeMove(piece, to)
+    public int nextMove() {
+        if (replayedMoves < 0) {
+            resetReplay();
+        }
+        int pieceNum = getMovePiece(replayedMoves);
+        int toPos = positions[pieceNum - 1] + BinaryGameWriter.DIRECTION_DELTAS[getMoveDirection(replayedMoves)];
+        for (int i = 0; i < 6; i++) {
+            if (positions[i] == toPos) {
+                positions[i] = -1; // Captured
+            }
+        }
+        positions[pieceNum - 1] = toPos;
+        replayedMoves++;
+        return GameState.encodeMove(pieceNum, toPos);
+    }
+
+    // Positions after the moves replayed so far (shared array, overwritten by nextMove)
+    public int[] replayPositions() {
+        return positions;
+    }
+
+    public int getReplayedMoves() {
+        return replayedMoves;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,220 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// Appends games to a compact binary archive (read back with BinaryGameReader)
+//
+// File:  "EWNB" magic, 1 version byte, then game records back to back
+// Game:  u8 name length, name (UTF-8)
+//        u8 dice count, dice packed two per byte (low nibble first)
+//        u8 target piece
+//        6 x u8 initial positions (0xFF = captured)
+//        u8 move count, then one byte per move: (piece - 1) << 3 | direction
+// A move only stores the piece and which of the 8 neighbouring squares it went to; the source square
+// and captures follow from replaying the moves from the initial positions, exactly like moves.txt does.
+// The move count is one byte, so a game of more than MAX_MOVES moves cannot be stored: it is skipped with a
+// warning (see getSkippedGames) instead of being written with a wrapped count.
+public class BinaryGameWriter implements AutoCloseable {
+    public static final byte[] MAGIC = {'E', 'W', 'N', 'B'};
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = MAGIC.length + 1;
+    // Destination - source for direction 0..7
+    public static final int[] DIRECTION_DELTAS = {-11, -10, -9, -1, 1, 9, 10, 11};
+    // Longest game a record can hold (u8 move count)
+    public static final int MAX_MOVES = 255;
+    // Largest possible game record: every length byte at 255
+    public static final int MAX_RECORD_SIZE = 1 + 255 + 1 + 128 + 1 + 6 + 1 + MAX_MOVES;
+    public static final int CAPTURED = 0xFF;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final String fileName;
+    private FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE + MAX_RECORD_SIZE);
+
+    // Game being recorded with beginGame / recordMove / endGame
+    private String playerName;
+    private int[] diceSequence;
+    private int targetPiece;
+    private final int[] initialPositions = new int[6];
+    private final int[] positions = new int[6];
+    private final int[] moves = new int[MAX_MOVES];
+    private int moveCount;
+    private boolean tooLong; // The current game has gone past MAX_MOVES and will be skipped
+    private boolean inGame;
+    private long skippedGames;
+
+    // Open an archive; append = keep the games already in the file
+    public BinaryGameWriter(String fileName, boolean append) {
+        this.fileName = fileName;
+        try {
+            channel = append
+                    ? FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE, StandardOpenOption.WRITE)
+                    : FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+                            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            if (channel.size() == 0) {
+                buffer.put(MAGIC).put((byte) VERSION);
+            }
+            channel.position(channel.size());
+        } catch (IOException e) {
+            System.err.println("Failed to open " + fileName + "!");
+            e.printStackTrace();
+        }
+    }
+
+    // Direction index (0-7) of a king step, -1 if the squares are not neighbours
+    public static int direction(int fromPos, int toPos) {
+        if (Math.abs(fromPos / 10 - toPos / 10) > 1 || Math.abs(fromPos % 10 - toPos % 10) > 1) {
+            return -1;
+        }
+        for (int d = 0; d < DIRECTION_DELTAS.length; d++) {
+            if (DIRECTION_DELTAS[d] == toPos - fromPos) {
+                return d;
+            }
+        }
+        return -1;
+    }
+
+    // Start recording a game (the previous one must have been ended)
+    public void beginGame(String playerName, int[] diceSequence, int targetPiece, int[] initialPositions) {
+        this.playerName = playerName;
+        this.diceSequence = diceSequence;
+        this.targetPiece = targetPiece;
+        System.arraycopy(initialPositions, 0, this.initialPositions, 0, 6);
+        System.arraycopy(initialPositions, 0, this.positions, 0, 6);
+        this.moveCount = 0;
+        this.tooLong = false;
+        this.inGame = true;
+    }
+
+    // Record a move of the current game
+    public void recordMove(int pieceNum, int toPos) {
+        int captured = -1;
+        for (int i = 0; i < 6; i++) {
+            if (positions[i] == toPos) {
+                captured = i;
+            }
+        }
+        if (captured >= 0) {
+            positions[captured] = -1;
+        }
+        positions[pieceNum - 1] = toPos;
+        if (moveCount == MAX_MOVES) {
+            tooLong = true; // Keep tracking positions, the game is dropped in endGame
+            return;
+        }
+        moves[moveCount++] = GameState.encodeMove(pieceNum, toPos);
+    }
+
+    // Record a move given as the positions after it (the moves.txt line), as Player.printMove sees it
+    public void recordPositions(int[] currentPositions) {
+        for (int i = 0; i < 6; i++) {
+            if (currentPositions[i] != -1 && currentPositions[i] != positions[i]) {
+                recordMove(i + 1, currentPositions[i]);
+                return;
+            }
+        }
+    }
+
+    // Write the current game to the archive
+    public synchronized void endGame() {
+        if (inGame) {
+            if (tooLong) {
+                skip(playerName, "more than " + MAX_MOVES + " moves");
+            } else {
+                writeGame(playerName, diceSequence, targetPiece, initialPositions, moves, moveCount);
+            }
+            inGame = false;
+        }
+    }
+
+    // Write a whole game at once; moves are encoded with GameState.encodeMove. Safe to call from several threads.
+    // A game of more than MAX_MOVES moves is skipped; a move that is not a king step throws and writes nothing.
+    public synchronized void writeGame(String playerName, int[] diceSequence, int targetPiece, int[] initialPositions,
+                                       int[] moves, int moveCount) {
+        if (moveCount > MAX_MOVES) {
+            skip(playerName, moveCount + " moves (at most " + MAX_MOVES + " fit in a record)");
+            return;
+        }
+        int recordStart = buffer.position();
+        byte[] name = playerName.getBytes(StandardCharsets.UTF_8);
+        int nameLength = Math.min(name.length, 255);
+        int diceCount = Math.min(diceSequence.length, 255);
+        buffer.put((byte) nameLength).put(name, 0, nameLength);
+        buffer.put((byte) diceCount);
+        for (int i = 0; i < diceCount; i += 2) {
+            int high = i + 1 < diceCount ? diceSequence[i + 1] : 0;
+            buffer.put((byte) (diceSequence[i] | high << 4));
+        }
+        buffer.put((byte) targetPiece);
+        for (int i = 0; i < 6; i++) {
+            buffer.put((byte) (initialPositions[i] == -1 ? CAPTURED : initialPositions[i]));
+        }
+
+        // Replay to know each move's source square
+        int[] replay = initialPositions.clone();
+        buffer.put((byte) moveCount);
+        for (int i = 0; i < moveCount; i++) {
+            int pieceNum = GameState.movePiece(moves[i]);
+            int toPos = GameState.moveTo(moves[i]);
+            int direction = direction(replay[pieceNum - 1], toPos);
+            if (direction < 0) {
+                buffer.position(recordStart); // Drop the partial record
+                throw new IllegalArgumentException("Move " + (i + 1) + " of piece " + pieceNum + " to " + toPos
+                        + " is not a step to a neighbouring square");
+            }
+            buffer.put((byte) ((pieceNum - 1) << 3 | direction));
+            for (int p = 0; p < 6; p++) {
+                if (replay[p] == toPos) {
+                    replay[p] = -1;
+                }
+            }
+            replay[pieceNum - 1] = toPos;
+        }
+        if (buffer.position() >= BUFFER_SIZE) {
+            flush();
+        }
+    }
+
+    private void skip(String playerName, String reason) {
+        skippedGames++;
+        System.err.println(fileName + ": skipped a game of " + playerName + " with " + reason);
+    }
+
+    // Games that were not written because the format cannot hold them
+    public synchronized long getSkippedGames() {
+        return skippedGames;
+    }
+
+    // Write buffered games to the file
+    public synchronized void flush() {
+        buffer.flip();
+        try {
+            while (channel != null && buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write to " + fileName + "!");
+            e.printStackTrace();
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public synchronized void close() {
+        endGame();
+        flush();
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close " + fileName + "!");
+                e.printStackTrace();
+            }
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+// Precomputed board tables shared by move generation and search (read-only after class load)
+public final class BoardTables {
+    // Neighbours of each square in the 8 king directions, flattened as square * 8 + i
+    // Off-board squares and the removed square 22 are already left out
+    public static final int[] NEIGHBORS = new int[100 * 8];
+    // Number of valid entries in NEIGHBORS for each square
+    public static final int[] NEIGHBOR_COUNT = new int[100];
+
+    // 128-bit path mask per source square: the squares the target walks through on its way to 0
+    // (diagonal first, then straight; the source square itself and square 22 are left out)
+    // Squares 0-63 are bits of PATH_LOW, squares 64-99 are bits (square - 64) of PATH_HIGH
+    public static final long[] PATH_LOW = new long[100];
+    public static final long[] PATH_HIGH = new long[100];
+
+    // Movable pieces per die (0-6) and alive-piece mask, flattened as dice * 64 + aliveMask
+    // Bit i = piece i+1; die 0 (dice sequence used up) moves nothing
+    public static final int[] MOVABLE = new int[7 * 64];
+
+    static {
+        int[] dx = {-1, -1, -1, 0, 0, 1, 1, 1}; // Row Change (Tens Digit)
+        int[] dy = {-1, 0, 1, -1, 1, -1, 0, 1}; // Column change (units digit)
+        for (int square = 0; square < 100; square++) {
+            int row = square / 10;
+            int col = square % 10;
+            int count = 0;
+            for (int i = 0; i < 8; i++) {
+                int newRow = row + dx[i];
+                int newCol = col + dy[i];
+                if (newRow >= 0 && newRow <= 9 && newCol >= 0 && newCol <= 9) {
+                    int newPos = newRow * 10 + newCol;
+                    if (newPos != 22) {
+                        NEIGHBORS[square * 8 + count] = newPos;
+                        count++;
+                    }
+                }
+            }
+            NEIGHBOR_COUNT[square] = count;
+
+            int currRow = row, currCol = col;
+            while (currRow > 0 || currCol > 0) {
+                if (currRow > 0) currRow--;
+                if (currCol > 0) currCol--;
+                int pos = currRow * 10 + currCol;
+                if (pos != 22) {
+                    PATH_LOW[square] |= lowBit(pos);
+                    PATH_HIGH[square] |= highBit(pos);
+                }
+            }
+        }
+
+        for (int dice = 1; dice <= 6; dice++) {
+            int diceBit = 1 << (dice - 1);
+            for (int aliveMask = 0; aliveMask < 64; aliveMask++) {
+                int movable;
+                if ((aliveMask & diceBit) != 0) {
+                    // Rule 2: You can only move a piece that matches the number on the dice.
+                    movable = diceBit;
+                } else {
+                    // Rule 3: Find the smallest piece larger than the dice + the largest piece smaller than the dice
+                    movable = 0;
+                    int bigger = aliveMask & ~((diceBit << 1) - 1);
+                    if (bigger != 0) {
+                        movable |= Integer.lowestOneBit(bigger);
+                    }
+                    int smaller = aliveMask & (diceBit - 1);
+                    if (smaller != 0) {
+                        movable |= Integer.highestOneBit(smaller);
+                    }
+                }
+                MOVABLE[dice * 64 + aliveMask] = movable;
+            }
+        }
+    }
+
+    // Bit of a square in the low / high half of a 128-bit square mask (0 if it belongs to the other half)
+    public static long lowBit(int square) {
+        return square < 64 ? 1L << square : 0L;
+    }
+
+    public static long highBit(int square) {
+        return square >= 64 ? 1L << (square - 64) : 0L;
+    }
+
+    // Is the square on the path from source to 0
+    public static boolean isOnPath(int source, int square) {
+        return ((PATH_LOW[source] & lowBit(square)) | (PATH_HIGH[source] & highBit(square))) != 0;
+    }
+
+    // How many occupied squares (given as a 128-bit occupancy mask) lie on the path from source to 0
+    public static int countOnPath(int source, long occupancyLow, long occupancyHigh) {
+        return Long.bitCount(PATH_LOW[source] & occupancyLow) + Long.bitCount(PATH_HIGH[source] & occupancyHigh);
+    }
+
+    private BoardTables() {
+        // Static tables only
+    }
+}
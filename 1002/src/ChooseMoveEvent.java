@@ -0,0 +1,88 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// JFR event for one AIPlayer.chooseMove call, carrying the SearchStats counters
+// Recorded only while a flight recording with this event enabled is running
+// (e.g. java -XX:StartFlightRecording=filename=search.jfr ...); otherwise commit() is a no-op.
+@Name("ewn.ChooseMove")
+@Label("Choose Move")
+@Category({"EWN", "Search"})
+@Description("One AI decision with node, pruning and transposition-table counters")
+@StackTrace(false)
+public class ChooseMoveEvent extends Event {
+    @Label("Search Mode")
+    String mode;
+
+    @Label("Move Number")
+    int moveNumber;
+
+    @Label("Nodes Generated")
+    long nodesGenerated;
+
+    @Label("Nodes Expanded")
+    long nodesExpanded;
+
+    @Label("Pruned: Visited")
+    long prunedVisited;
+
+    @Label("Pruned: Target Captured")
+    long prunedTargetCaptured;
+
+    @Label("Pruned: Captures Target")
+    long prunedCapturesTarget;
+
+    @Label("Pruned: Heuristic")
+    long prunedHeuristic;
+
+    @Label("Pruned: Blocks Path")
+    long prunedBlocksPath;
+
+    @Label("Pruned: Endgame")
+    long prunedEndgame;
+
+    @Label("TT Probes")
+    long ttProbes;
+
+    @Label("TT Hits")
+    long ttHits;
+
+    @Label("Peak Open Set")
+    int peakOpenSize;
+
+    @Label("Solver Nodes")
+    long solverNodes;
+
+    @Label("Tablebase Hits")
+    long tablebaseHits;
+
+    @Label("Proven")
+    boolean proven;
+
+    @Label("Timed Out")
+    boolean timedOut;
+
+    // Copy the counters of a finished decision
+    void fill(SearchStats stats, int moveNumber) {
+        this.mode = stats.getMode();
+        this.moveNumber = moveNumber;
+        this.nodesGenerated = stats.getNodesGenerated();
+        this.nodesExpanded = stats.getNodesExpanded();
+        this.prunedVisited = stats.getPruned(SearchStats.RULE_VISITED);
+        this.prunedTargetCaptured = stats.getPruned(SearchStats.RULE_TARGET_CAPTURED);
+        this.prunedCapturesTarget = stats.getPruned(SearchStats.RULE_CAPTURES_TARGET);
+        this.prunedHeuristic = stats.getPruned(SearchStats.RULE_HEURISTIC);
+        this.prunedBlocksPath = stats.getPruned(SearchStats.RULE_BLOCKS_PATH);
+        this.prunedEndgame = stats.getPruned(SearchStats.RULE_ENDGAME);
+        this.ttProbes = stats.getTtProbes();
+        this.ttHits = stats.getTtHits();
+        this.peakOpenSize = stats.getPeakOpenSize();
+        this.solverNodes = stats.getSolverNodes();
+        this.tablebaseHits = stats.getTablebaseHits();
+        this.proven = stats.isProven();
+        this.timedOut = stats.isTimedOut();
+    }
+}
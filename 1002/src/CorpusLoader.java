@@ -0,0 +1,361 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// Streams the levels of a corpus file: many level entries in the level*.txt format, back to back
+//
+//   # optional comment lines (the last one before an entry is available as its comment)
+//   3                    <- target piece
+//   76 44 74 46 77 73    <- initial positions of the 6 pieces
+//   5 4 4 6 4 4 1 2 ...  <- dice sequence
+//
+// Blank lines are ignored. The file is memory-mapped and parsed byte by byte; next() fills the single
+// LevelView flyweight in place, so walking a corpus allocates nothing per level. A malformed entry is
+// reported to the error listener with its byte offset and line number; its remaining lines are skipped
+// up to the next line that can start an entry (a single number, a comment or a blank line) and reading
+// continues there, so a short broken entry does not swallow the first line of the next one.
+public class CorpusLoader implements AutoCloseable {
+    // Longest dice sequence accepted in one entry
+    public static final int MAX_DICE = 255;
+
+    // Receives malformed entries
+    public interface ErrorListener {
+        void onError(long offset, long line, String message);
+    }
+
+    private final String fileName;
+    private final FileChannel channel;
+    private final MappedByteBuffer data;
+    private final int size;
+    private int pos;
+    private long line = 1;
+    private final LevelView view = new LevelView();
+    private long levelCount;
+    private long errorCount;
+    private ErrorListener errorListener;
+
+    public CorpusLoader(String fileName) throws IOException {
+        this.fileName = fileName;
+        this.channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+        long fileSize = channel.size();
+        if (fileSize > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IOException(fileName + " is larger than 2 GB; split the corpus into several files");
+        }
+        this.size = (int) fileSize;
+        this.data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        this.errorListener = (offset, line, message) ->
+                System.err.println(fileName + ":" + line + " (offset " + offset + "): " + message);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: CorpusLoader <corpus file>");
+            return;
+        }
+        long start = System.nanoTime();
+        long dice = 0;
+        try (CorpusLoader loader = new CorpusLoader(args[0])) {
+            while (loader.next()) {
+                dice += loader.current().getDiceCount();
+            }
+            System.out.println(loader.getLevelCount() + " levels (" + dice + " dice), " + loader.getErrorCount()
+                    + " malformed entries, " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+    }
+
+    public void setErrorListener(ErrorListener errorListener) {
+        this.errorListener = errorListener;
+    }
+
+    // Well-formed levels returned so far
+    public long getLevelCount() {
+        return levelCount;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    // The level read by the last successful next() (the same object every time)
+    public LevelView current() {
+        return view;
+    }
+
+    // Read the next well-formed level into current(); false at the end of the corpus
+    public boolean next() {
+        while (true) {
+            int commentStart = -1;
+            int commentEnd = -1;
+            // Skip blank lines and remember the last comment line
+            while (pos < size) {
+                int lineStart = pos;
+                skipSpaces();
+                if (pos < size && data.get(pos) == '#') {
+                    commentStart = pos + 1;
+                    skipLine();
+                    commentEnd = trimLineEnd(lineStart, pos);
+                } else if (pos >= size || isLineEnd(data.get(pos))) {
+                    skipLine();
+                } else {
+                    pos = lineStart;
+                    break;
+                }
+            }
+            if (pos >= size) {
+                return false;
+            }
+
+            long entryOffset = pos;
+            long entryLine = line;
+            String error = parseEntry();
+            if (error == null) {
+                view.offset = entryOffset;
+                view.line = entryLine;
+                view.commentStart = commentStart;
+                view.commentEnd = commentEnd;
+                view.index = levelCount++;
+                return true;
+            }
+            errorCount++;
+            if (errorListener != null) {
+                errorListener.onError(entryOffset, entryLine, error);
+            }
+            // Resynchronise: skip the rest of the broken entry, but stop early where the next entry can start
+            while (line < entryLine + 3 && pos < size && !atEntryBoundary()) {
+                skipLine();
+            }
+        }
+    }
+
+    // Parse target, positions and dice lines into the view; returns an error message or null
+    private String parseEntry() {
+        int count = parseLine(view.scratch, 1);
+        if (count != 1) {
+            return count < 0 ? "target piece is not a number" : "target line must hold exactly one value";
+        }
+        int target = view.scratch[0];
+        if (target < 1 || target > 6) {
+            return "target piece " + target + " is not between 1 and 6";
+        }
+
+        count = parseLine(view.positions, 6);
+        if (count != 6) {
+            return count < 0 ? "initial positions are not numbers" : "expected 6 initial positions, found " + countDescription(count);
+        }
+        for (int i = 0; i < 6; i++) {
+            int p = view.positions[i];
+            if (p < -1 || p > 99 || p == 22) {
+                return "initial position " + p + " of piece " + (i + 1) + " is not a board square";
+            }
+            for (int j = 0; j < i; j++) {
+                if (p != -1 && view.positions[j] == p) {
+                    return "pieces " + (j + 1) + " and " + (i + 1) + " share square " + p;
+                }
+            }
+        }
+
+        count = parseLine(view.dice, MAX_DICE);
+        if (count <= 0) {
+            return count < 0 ? "dice sequence is not numbers" : "dice sequence is empty";
+        }
+        if (count > MAX_DICE) {
+            return "dice sequence is longer than " + MAX_DICE;
+        }
+        for (int i = 0; i < count; i++) {
+            if (view.dice[i] < 1 || view.dice[i] > 6) {
+                return "dice value " + view.dice[i] + " at index " + i + " is not between 1 and 6";
+            }
+        }
+        view.targetPiece = target;
+        view.diceCount = count;
+        return null;
+    }
+
+    // Does the current line look like the start of an entry (a lone target number), a comment or a blank line?
+    // Reads ahead without moving pos
+    private boolean atEntryBoundary() {
+        int p = pos;
+        while (p < size && (data.get(p) == ' ' || data.get(p) == '\t')) {
+            p++;
+        }
+        if (p >= size || isLineEnd(data.get(p)) || data.get(p) == '#') {
+            return true;
+        }
+        int digits = 0;
+        while (p < size && data.get(p) >= '0' && data.get(p) <= '9') {
+            digits++;
+            p++;
+        }
+        while (p < size && (data.get(p) == ' ' || data.get(p) == '\t')) {
+            p++;
+        }
+        return digits > 0 && (p >= size || isLineEnd(data.get(p)));
+    }
+
+    private static String countDescription(int count) {
+        return count > 6 ? "more" : String.valueOf(count);
+    }
+
+    // Parse the integers of the current line into out (at most max of them) and move to the next line
+    // Returns how many values the line holds (max + 1 if there are more), or -1 if something is not a number
+    private int parseLine(int[] out, int max) {
+        int count = 0;
+        boolean bad = false;
+        while (true) {
+            skipSpaces();
+            if (pos >= size || isLineEnd(data.get(pos))) {
+                break;
+            }
+            boolean negative = false;
+            if (data.get(pos) == '-') {
+                negative = true;
+                pos++;
+            }
+            int digits = 0;
+            int value = 0;
+            while (pos < size) {
+                int c = data.get(pos) - '0';
+                if (c < 0 || c > 9) {
+                    break;
+                }
+                if (value < 100_000_000) {
+                    value = value * 10 + c;
+                }
+                digits++;
+                pos++;
+            }
+            if (digits == 0 || (pos < size && !isSeparator(data.get(pos)))) {
+                bad = true;
+                break;
+            }
+            if (count < max) {
+                out[count] = negative ? -value : value;
+            }
+            count++;
+        }
+        skipLine();
+        if (bad) {
+            return -1;
+        }
+        return Math.min(count, max + 1);
+    }
+
+    private void skipSpaces() {
+        while (pos < size) {
+            byte c = data.get(pos);
+            if (c != ' ' && c != '\t') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    // Move past the end of the current line
+    private void skipLine() {
+        while (pos < size) {
+            byte c = data.get(pos++);
+            if (c == '\n') {
+                line++;
+                return;
+            }
+        }
+    }
+
+    // End of a line's content (without \r\n) that ends before `end`
+    private int trimLineEnd(int start, int end) {
+        while (end > start && isLineEnd(data.get(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean isLineEnd(byte c) {
+        return c == '\n' || c == '\r';
+    }
+
+    private static boolean isSeparator(byte c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // One level of the corpus; overwritten by the next call to next()
+    public class LevelView {
+        private int targetPiece;
+        private final int[] positions = new int[6];
+        private final int[] dice = new int[MAX_DICE];
+        private int diceCount;
+        private final int[] scratch = new int[1];
+        private long offset;
+        private long line;
+        private long index;
+        private int commentStart = -1;
+        private int commentEnd = -1;
+
+        public int getTargetPiece() {
+            return targetPiece;
+        }
+
+        // Initial position of a piece (1-6), -1 if it starts captured
+        public int getInitialPosition(int piece) {
+            return positions[piece - 1];
+        }
+
+        public int getDiceCount() {
+            return diceCount;
+        }
+
+        public int getDice(int index) {
+            return dice[index];
+        }
+
+        // Byte offset and line number of the entry's first line
+        public long getOffset() {
+            return offset;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        // Position of the level among the well-formed levels of the corpus (0-based)
+        public long getIndex() {
+            return index;
+        }
+
+        // Text of the last comment line before the entry (without '#'), null if there is none
+        public String getComment() {
+            if (commentStart < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[commentEnd - commentStart];
+            data.get(commentStart, bytes, 0, bytes.length);
+            return new String(bytes, StandardCharsets.UTF_8).trim();
+        }
+
+        public int[] copyInitialPositions() {
+            return positions.clone();
+        }
+
+        public int[] copyDiceSequence() {
+            return java.util.Arrays.copyOf(dice, diceCount);
+        }
+
+        // A GameLoader holding copies of this level, for code that plays a level (GameMain, BatchRunner)
+        public GameLoader toGameLoader() {
+            return new GameLoader(targetPiece, copyInitialPositions(), copyDiceSequence());
+        }
+
+        @Override
+        public String toString() {
+            return fileName + ":" + line + " level " + index;
+        }
+    }
+}
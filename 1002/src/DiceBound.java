@@ -0,0 +1,108 @@
+// Admissible lower bound on the moves the target piece still needs, precomputed per level
+// The target moves like a king, so it needs at least its Chebyshev distance to square 0 in moves of its
+// own, and it can only move on turns whose die selects it (GameState.movableMask). Which turns those are
+// depends on the dice sequence and on which pieces are still alive, and the alive set only shrinks
+// through captures. The table is the exact answer to a relaxed game that keeps only that much:
+//
+//   - state = (dice index, alive mask, Chebyshev distance of the target)
+//   - a turn on which the target is movable may lower the distance by one
+//   - any move, by the target or by another movable piece, may capture any other non-target piece
+//
+// Every real game line is also a line of the relaxed game, so the table value never exceeds the true
+// number of moves to win: pruning with it never cuts a winning line. INFINITE means the target cannot
+// reach square 0 before the dice sequence runs out (a dead position).
+public final class DiceBound {
+    public static final int INFINITE = Byte.MAX_VALUE;
+
+    private static final int MAX_DISTANCE = 9;
+    private static final int DISTANCES = MAX_DISTANCE + 1;
+
+    private final int targetPiece;
+    private final int diceCount;
+    // Flattened as (diceIndex * 64 + aliveMask) * DISTANCES + distance; only masks holding the target are filled
+    private final byte[] table;
+
+    public DiceBound(int targetPiece, int[] diceSequence) {
+        this.targetPiece = targetPiece;
+        this.diceCount = diceSequence.length;
+        this.table = new byte[(diceCount + 1) * 64 * DISTANCES];
+        build(diceSequence);
+    }
+
+    // Backwards over the dice sequence: each row only depends on the row of the next dice index
+    private void build(int[] diceSequence) {
+        int targetBit = 1 << (targetPiece - 1);
+        // Past the last die nothing moves any more
+        for (int mask = 0; mask < 64; mask++) {
+            int base = index(diceCount, mask, 0);
+            table[base] = 0;
+            for (int distance = 1; distance <= MAX_DISTANCE; distance++) {
+                table[base + distance] = INFINITE;
+            }
+        }
+        for (int i = diceCount - 1; i >= 0; i--) {
+            for (int mask = 0; mask < 64; mask++) {
+                if ((mask & targetBit) == 0) {
+                    continue;
+                }
+                int movable = GameState.movableMask(diceSequence[i], mask);
+                int others = movable & ~targetBit;
+                int base = index(i, mask, 0);
+                table[base] = 0;
+                for (int distance = 1; distance <= MAX_DISTANCE; distance++) {
+                    int best = INFINITE;
+                    if ((movable & targetBit) != 0) {
+                        // The target steps closer, possibly capturing any other piece
+                        best = Math.min(best, bestAfterCapture(i + 1, mask, targetBit, distance - 1, targetBit));
+                    }
+                    if (others != 0) {
+                        // Another piece moves; it can capture anything but itself and the target
+                        best = Math.min(best, bestAfterCapture(i + 1, mask, targetBit, distance, others));
+                    }
+                    table[base + distance] = (byte) Math.min(best + 1, INFINITE);
+                }
+            }
+        }
+    }
+
+    // Smallest next-row value over "no capture" and every capture one of the movers can make
+    private int bestAfterCapture(int nextIndex, int mask, int targetBit, int distance, int movers) {
+        int best = table[index(nextIndex, mask, distance)];
+        for (int victims = mask & ~targetBit; victims != 0; victims &= victims - 1) {
+            int victim = victims & -victims;
+            if ((movers & ~victim) != 0) {
+                best = Math.min(best, table[index(nextIndex, mask & ~victim, distance)]);
+            }
+        }
+        return best;
+    }
+
+    private static int index(int diceIndex, int aliveMask, int distance) {
+        return (diceIndex * 64 + aliveMask) * DISTANCES + distance;
+    }
+
+    // Chebyshev distance from a square to square 0 (the king-move bound on an empty board)
+    public static int chebyshevToCorner(int pos) {
+        return Math.max(pos / 10, pos % 10);
+    }
+
+    // Lower bound on the moves (all pieces, starting with die diceIndex) until the target reaches square 0
+    public int lowerBound(int diceIndex, int aliveMask, int targetPos) {
+        if (targetPos == 0) {
+            return 0;
+        }
+        if (targetPos < 0 || diceIndex < 0 || diceIndex > diceCount) {
+            return INFINITE;
+        }
+        return table[index(diceIndex, aliveMask, chebyshevToCorner(targetPos))];
+    }
+
+    public int lowerBound(GameState state) {
+        return lowerBound(state.getDiceIndex(), state.getAliveMask(), state.positionOf(targetPiece));
+    }
+
+    // True if the position provably cannot be won within movesLeft moves
+    public boolean isDead(GameState state, int movesLeft) {
+        return lowerBound(state) > movesLeft;
+    }
+}
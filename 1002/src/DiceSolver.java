@@ -0,0 +1,361 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Exact solver for a level whose whole dice sequence is known in advance
+// The game is then deterministic and single-agent: (positions, dice index) is the full state.
+// Iterative deepening finds the minimum number of moves that brings the target piece to square 0,
+// and a transposition table remembers states already proven to have no win within a given depth.
+// solveParallel splits the root moves (and optionally the ply below) across a ForkJoinPool; the
+// workers share the transposition table and the best line length found so far.
+public class DiceSolver {
+    // Returned by solve when no winning line exists within the move budget
+    public static final int NO_SOLUTION = -1;
+
+    // Results of one depth-limited search
+    private static final int NO_WIN = 0;
+    private static final int WIN = 1;
+    private static final int ABORTED = 2; // Another worker already found a line at least this short, or time ran out
+
+    private final int targetPiece;
+    private final int[] diceSequence;
+    private final TranspositionTable table;
+    private final DiceBound bound; // Admissible moves-to-win bound for this dice sequence
+    private final SearchContext context = new SearchContext();
+
+    // Result of the last successful solve: moves and the hash of the state before each move
+    private int[] plan = new int[0];
+    private long[] planHashes = new long[0];
+    private long nodes;
+
+    // Search stops (without a result) once System.nanoTime() passes the deadline
+    private long deadline = Long.MAX_VALUE;
+    private volatile boolean timedOut;
+
+    public DiceSolver(int targetPiece, int[] diceSequence) {
+        this(targetPiece, diceSequence, new TranspositionTable(20, TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED));
+    }
+
+    public DiceSolver(int targetPiece, int[] diceSequence, TranspositionTable table) {
+        this.targetPiece = targetPiece;
+        this.diceSequence = diceSequence;
+        this.table = table;
+        this.bound = new DiceBound(targetPiece, diceSequence);
+    }
+
+    // Find the shortest winning line from the state (its dice index gives the position in the sequence)
+    // Returns the number of moves, or NO_SOLUTION if the target cannot reach 0 within maxMoves.
+    // The state is walked with make/unmake and is left unchanged.
+    public int solve(GameState state, int maxMoves) {
+        nodes = 0;
+        timedOut = false;
+        clearPlan();
+        if (state.positionOf(targetPiece) == -1) {
+            return NO_SOLUTION;
+        }
+        context.reset(maxMoves, null);
+
+        int rootIndex = state.getDiceIndex();
+        int rootDice = state.getCurrentDice();
+        setDice(state, rootIndex);
+        try {
+            for (int limit = lowerBound(state); limit <= maxMoves && !timedOut; limit++) {
+                if (context.search(state, 0, limit) == WIN) {
+                    nodes = context.nodes;
+                    recordPlan(state, context.line, limit);
+                    return limit;
+                }
+            }
+            nodes = context.nodes;
+            return NO_SOLUTION;
+        } finally {
+            state.setDiceIndex(rootIndex);
+            state.setCurrentDice(rootDice);
+        }
+    }
+
+    // Parallel version of solve: every move in the first splitDepth plies (1 or 2) becomes a task.
+    // Each task deepens its own subtree and stops once its lines can no longer beat the shared best length.
+    public int solveParallel(GameState state, int maxMoves, ForkJoinPool pool, int splitDepth) {
+        nodes = 0;
+        timedOut = false;
+        clearPlan();
+        if (state.positionOf(targetPiece) == -1) {
+            return NO_SOLUTION;
+        }
+
+        int rootIndex = state.getDiceIndex();
+        int rootDice = state.getCurrentDice();
+        setDice(state, rootIndex);
+        try {
+            SharedResult result = new SharedResult(maxMoves);
+            if (state.isWinning()) {
+                recordPlan(state, new int[0], 0);
+                return 0;
+            }
+            pool.invoke(new SplitTask(state.toPacked(), new int[0], Math.max(1, splitDepth), result));
+            nodes = result.nodes.get();
+            if (result.bestLine == null || timedOut) {
+                return NO_SOLUTION;
+            }
+            recordPlan(state, result.bestLine, result.bestLine.length);
+            return result.bestLine.length;
+        } finally {
+            state.setDiceIndex(rootIndex);
+            state.setCurrentDice(rootDice);
+        }
+    }
+
+    // Best line shared by the parallel workers
+    private static class SharedResult {
+        final AtomicInteger bestLength;
+        final AtomicLong nodes = new AtomicLong();
+        int[] bestLine;
+
+        SharedResult(int maxMoves) {
+            this.bestLength = new AtomicInteger(maxMoves + 1);
+        }
+
+        synchronized void offer(int[] line) {
+            if (bestLine == null || line.length < bestLine.length) {
+                bestLine = line;
+                bestLength.accumulateAndGet(line.length, Math::min);
+            }
+        }
+    }
+
+    // Task for one prefix of moves: splits further or deepens the subtree below the prefix
+    private class SplitTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final long rootState;
+        private final int[] prefix;
+        private final int splitDepth;
+        private final transient SharedResult result; // Tasks are never serialized
+
+        SplitTask(long rootState, int[] prefix, int splitDepth, SharedResult result) {
+            this.rootState = rootState;
+            this.prefix = prefix;
+            this.splitDepth = splitDepth;
+            this.result = result;
+        }
+
+        @Override
+        protected void compute() {
+            // Each task replays its prefix on a private copy of the root state
+            GameState state = GameState.fromPacked(rootState, targetPiece);
+            for (int move : prefix) {
+                int diceIndex = state.getDiceIndex();
+                state.executeMove(move);
+                setDice(state, diceIndex + 1);
+            }
+            if (state.isWinning()) {
+                result.offer(prefix.clone());
+                return;
+            }
+            if (state.positionOf(targetPiece) == -1 || prefix.length >= result.bestLength.get()) {
+                return;
+            }
+
+            if (prefix.length < splitDepth) {
+                int[] buffer = new int[GameState.MAX_MOVES];
+                int count = state.generateMoves(buffer);
+                List<SplitTask> children = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    if (state.occupantAt(GameState.moveTo(buffer[i])) == targetPiece) {
+                        continue; // Capturing the target piece loses the game
+                    }
+                    int[] childPrefix = Arrays.copyOf(prefix, prefix.length + 1);
+                    childPrefix[prefix.length] = buffer[i];
+                    children.add(new SplitTask(rootState, childPrefix, splitDepth, result));
+                }
+                invokeAll(children);
+                return;
+            }
+
+            SearchContext worker = new SearchContext();
+            int maxMoves = result.bestLength.get() - 1;
+            worker.reset(maxMoves, result);
+            worker.prefixLength = prefix.length;
+            for (int limit = lowerBound(state); prefix.length + limit < result.bestLength.get() && !timedOut; limit++) {
+                int outcome = worker.search(state, 0, limit);
+                if (outcome == WIN) {
+                    int[] line = Arrays.copyOf(prefix, prefix.length + limit);
+                    System.arraycopy(worker.line, 0, line, prefix.length, limit);
+                    result.offer(line);
+                    break;
+                }
+            }
+            result.nodes.addAndGet(worker.nodes);
+        }
+    }
+
+    // Per-thread search scratch: one move buffer per ply and the line being searched
+    private class SearchContext {
+        int[][] moveBuffers = new int[0][];
+        int[] line = new int[0];
+        long nodes;
+        int prefixLength;      // Moves already played above this context's root (parallel tasks)
+        SharedResult shared;   // Shared best length to stop early, null when searching alone
+
+        void reset(int maxMoves, SharedResult shared) {
+            if (moveBuffers.length < maxMoves + 1) {
+                moveBuffers = new int[maxMoves + 1][GameState.MAX_MOVES];
+                line = new int[maxMoves + 1];
+            }
+            this.nodes = 0;
+            this.prefixLength = 0;
+            this.shared = shared;
+        }
+
+        // Depth-first search for a win within depthLeft moves
+        int search(GameState state, int ply, int depthLeft) {
+            nodes++;
+            int targetPos = state.positionOf(targetPiece);
+            if (targetPos == 0) {
+                return WIN;
+            }
+            if (depthLeft < bound.lowerBound(state)) {
+                return NO_WIN;
+            }
+            if (shared != null && prefixLength + ply + depthLeft >= shared.bestLength.get()) {
+                return ABORTED;
+            }
+            if ((nodes & 1023) == 0 && deadline != Long.MAX_VALUE && System.nanoTime() >= deadline) {
+                timedOut = true;
+            }
+            if (timedOut) {
+                return ABORTED;
+            }
+
+            long key = state.getHash();
+            long entry = table.probe(key);
+            if (entry != TranspositionTable.MISS && TranspositionTable.bound(entry) == TranspositionTable.BOUND_UPPER
+                    && TranspositionTable.depth(entry) >= depthLeft) {
+                // Already proven: no win from here within this many moves
+                return NO_WIN;
+            }
+
+            int[] buffer = moveBuffers[ply];
+            int count = state.generateMoves(buffer);
+            orderMoves(state, buffer, count);
+
+            int diceIndex = state.getDiceIndex();
+            boolean aborted = false;
+            for (int i = 0; i < count; i++) {
+                if (state.occupantAt(GameState.moveTo(buffer[i])) == targetPiece) {
+                    continue; // Capturing the target piece loses the game
+                }
+                int undo = state.executeMove(buffer[i]);
+                setDice(state, diceIndex + 1);
+                int outcome = search(state, ply + 1, depthLeft - 1);
+                setDice(state, diceIndex);
+                state.undoMove(undo);
+                if (outcome == WIN) {
+                    line[ply] = buffer[i];
+                    return WIN;
+                }
+                if (outcome == ABORTED) {
+                    aborted = true;
+                    break;
+                }
+            }
+
+            if (aborted) {
+                return ABORTED; // Not a proof, so nothing is stored
+            }
+            table.store(key, depthLeft, TranspositionTable.BOUND_UPPER, 0, 0);
+            return NO_WIN;
+        }
+    }
+
+    // Search the most promising moves first: target piece moves closer to 0, then captures
+    private void orderMoves(GameState state, int[] buffer, int count) {
+        for (int i = 1; i < count; i++) {
+            int move = buffer[i];
+            int score = moveScore(state, move);
+            int j = i - 1;
+            while (j >= 0 && moveScore(state, buffer[j]) > score) {
+                buffer[j + 1] = buffer[j];
+                j--;
+            }
+            buffer[j + 1] = move;
+        }
+    }
+
+    // Lower score = searched earlier
+    private int moveScore(GameState state, int move) {
+        int toPos = GameState.moveTo(move);
+        if (GameState.movePiece(move) == targetPiece) {
+            return DiceBound.chebyshevToCorner(toPos);
+        }
+        return state.occupantAt(toPos) != 0 ? 10 : 20;
+    }
+
+    private void recordPlan(GameState state, int[] line, int length) {
+        plan = new int[length];
+        planHashes = new long[length];
+        int[] undo = new int[length];
+        int diceIndex = state.getDiceIndex();
+        for (int i = 0; i < length; i++) {
+            plan[i] = line[i];
+            planHashes[i] = state.getHash();
+            undo[i] = state.executeMove(line[i]);
+            setDice(state, diceIndex + i + 1);
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            setDice(state, diceIndex + i);
+            state.undoMove(undo[i]);
+        }
+    }
+
+    // Lower bound on the moves left: the Chebyshev distance, counting only turns whose die can move the target
+    private int lowerBound(GameState state) {
+        return bound.lowerBound(state);
+    }
+
+    // Point the state at a dice index (dice 0 = sequence exhausted, no piece can move)
+    private void setDice(GameState state, int diceIndex) {
+        state.setDiceIndex(diceIndex);
+        state.setCurrentDice(diceIndex < diceSequence.length ? diceSequence[diceIndex] : 0);
+    }
+
+    // Give the next solves a deadline in System.nanoTime() units (Long.MAX_VALUE = no limit)
+    public void setDeadline(long deadlineNanos) {
+        this.deadline = deadlineNanos;
+    }
+
+    // Did the last solve stop because of the deadline (its NO_SOLUTION is then not a proof)
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    // Forget the last plan (the transposition table is kept: its entries stay valid for this level)
+    public void clearPlan() {
+        plan = new int[0];
+        planHashes = new long[0];
+    }
+
+    // Number of moves in the plan found by the last solve (0 if none)
+    public int getPlanLength() {
+        return plan.length;
+    }
+
+    // Encoded move i of the plan (see GameState.encodeMove)
+    public int getPlanMove(int i) {
+        return plan[i];
+    }
+
+    // Hash of the state in which plan move i should be played
+    public long getPlanHash(int i) {
+        return planHashes[i];
+    }
+
+    // Nodes visited by the last solve (summed over all workers)
+    public long getNodeCount() {
+        return nodes;
+    }
+}
@@ -0,0 +1,385 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Endgame tablebase for one level: the exact number of moves to win for every position with at most
+// two (optionally three) pieces left, at every index of the level's dice sequence.
+// The dice of a level are known in advance, so the future of a position is fixed by its dice index;
+// the table is therefore built per level (target piece + dice sequence) and indexed by the dice index
+// and the squares of the remaining pieces.
+//
+// It is built by backward induction over the dice index: at the last die a position is won only if a
+// move takes the target to 0, and at index i the value is 1 + the best value at index i + 1 over the
+// legal moves (capturing the target is never allowed). Every move keeps or lowers the number of pieces,
+// so the few-piece positions form a closed set.
+//
+// File: "EWNT" magic, version, target piece, max pieces, first dice index, dice count, the dice,
+//       then one byte per slot (moves to win, 255 = no win before the dice run out).
+// Slots per dice index: 100 for the target alone, 5 x 100 x 100 for the target plus one other piece,
+// and 10 x 100 x 100 x 100 for the target plus two others (three-piece tables only).
+//
+// Usage: java EndgameTablebase level4.txt [max pieces 2|3] [first dice index]   (writes level4.ewnt)
+public class EndgameTablebase {
+    // probe results besides a number of moves
+    public static final int NO_WIN = -1;   // The target cannot reach 0 before the dice run out
+    public static final int UNKNOWN = -2;  // The position is not in the table (too many pieces, earlier dice)
+
+    private static final byte[] MAGIC = {'E', 'W', 'N', 'T'};
+    private static final int VERSION = 1;
+    private static final int NO_WIN_BYTE = 0xFF;
+    private static final int ONE_PIECE_SLOTS = 100;
+    private static final int TWO_PIECE_SLOTS = 5 * 100 * 100;
+    private static final int THREE_PIECE_SLOTS = 10 * 100 * 100 * 100;
+
+    private final int targetPiece;
+    private final int[] diceSequence;
+    private final int maxPieces;
+    private final int firstIndex;        // Lowest dice index in the table
+    private final long slotsPerIndex;
+    private final int headerSize;
+    private final ByteBuffer data;       // Heap buffer while building, mapped file once opened
+    // Rank (0-4) of each non-target piece and the index of each pair of ranks (three-piece slots)
+    private final int[] rank = new int[7];
+    private final int[][] pairIndex = new int[5][5];
+
+    private EndgameTablebase(int targetPiece, int[] diceSequence, int maxPieces, int firstIndex, ByteBuffer data) {
+        this.targetPiece = targetPiece;
+        this.diceSequence = diceSequence;
+        this.maxPieces = maxPieces;
+        this.firstIndex = firstIndex;
+        this.slotsPerIndex = ONE_PIECE_SLOTS + TWO_PIECE_SLOTS + (maxPieces >= 3 ? (long) THREE_PIECE_SLOTS : 0);
+        this.headerSize = MAGIC.length + 5 + diceSequence.length;
+        this.data = data;
+        int r = 0;
+        for (int piece = 1; piece <= 6; piece++) {
+            rank[piece] = piece == targetPiece ? -1 : r++;
+        }
+        int pair = 0;
+        for (int a = 0; a < 5; a++) {
+            for (int b = a + 1; b < 5; b++) {
+                pairIndex[a][b] = pair++;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: EndgameTablebase <level file> [max pieces 2|3] [first dice index]");
+            return;
+        }
+        GameLoader loader = new GameLoader(args[0]);
+        if (loader.getDiceSequence() == null) {
+            return;
+        }
+        int maxPieces = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int firstIndex = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        long start = System.nanoTime();
+        EndgameTablebase tablebase = build(loader.getTargetPiece(), loader.getDiceSequence(), maxPieces, firstIndex);
+        String out = tableFileFor(args[0]);
+        tablebase.write(out);
+        System.out.println("Wrote " + out + " (" + new File(out).length() + " bytes, "
+                + (System.nanoTime() - start) / 1_000_000 + " ms)");
+    }
+
+    // Table file that belongs to a level file: level4.txt -> level4.ewnt
+    public static String tableFileFor(String levelFile) {
+        int dot = levelFile.lastIndexOf('.');
+        return (dot > levelFile.lastIndexOf(File.separatorChar) && dot >= 0 ? levelFile.substring(0, dot) : levelFile) + ".ewnt";
+    }
+
+    // Solve all few-piece positions of a level from dice index firstIndex on
+    public static EndgameTablebase build(int targetPiece, int[] diceSequence, int maxPieces, int firstIndex) {
+        if (maxPieces < 2 || maxPieces > 3) {
+            throw new IllegalArgumentException("Tablebases hold 2 or 3 pieces, not " + maxPieces);
+        }
+        int indices = Math.max(0, diceSequence.length - firstIndex);
+        long slots = (ONE_PIECE_SLOTS + TWO_PIECE_SLOTS + (maxPieces >= 3 ? (long) THREE_PIECE_SLOTS : 0)) * indices;
+        int header = MAGIC.length + 5 + diceSequence.length;
+        if (header + slots > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Table too large; use a later first dice index");
+        }
+        ByteBuffer data = ByteBuffer.allocate((int) (header + slots));
+        data.put(MAGIC).put((byte) VERSION).put((byte) targetPiece).put((byte) maxPieces)
+                .put((byte) firstIndex).put((byte) diceSequence.length);
+        for (int dice : diceSequence) {
+            data.put((byte) dice);
+        }
+        EndgameTablebase tablebase = new EndgameTablebase(targetPiece, diceSequence.clone(), maxPieces, firstIndex, data);
+        for (int index = diceSequence.length - 1; index >= firstIndex; index--) {
+            tablebase.solveIndex(index);
+        }
+        return tablebase;
+    }
+
+    // Memory-map a table file; null if it is missing or belongs to another level
+    public static EndgameTablebase openIfPresent(String fileName, int targetPiece, int[] diceSequence) {
+        if (!new File(fileName).isFile()) {
+            return null;
+        }
+        try {
+            EndgameTablebase tablebase = open(fileName);
+            if (tablebase.targetPiece != targetPiece || !Arrays.equals(tablebase.diceSequence, diceSequence)) {
+                System.err.println(fileName + " belongs to a different level and is ignored");
+                return null;
+            }
+            return tablebase;
+        } catch (IOException e) {
+            System.err.println("Failed to open the tablebase " + fileName + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    public static EndgameTablebase open(String fileName) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            for (int i = 0; i < MAGIC.length; i++) {
+                if (data.get(i) != MAGIC[i]) {
+                    throw new IOException(fileName + " is not a tablebase file");
+                }
+            }
+            if (data.get(MAGIC.length) != VERSION) {
+                throw new IOException(fileName + ": unsupported tablebase version " + data.get(MAGIC.length));
+            }
+            int targetPiece = data.get(MAGIC.length + 1);
+            int maxPieces = data.get(MAGIC.length + 2);
+            int firstIndex = data.get(MAGIC.length + 3) & 0xFF;
+            int[] diceSequence = new int[data.get(MAGIC.length + 4) & 0xFF];
+            for (int i = 0; i < diceSequence.length; i++) {
+                diceSequence[i] = data.get(MAGIC.length + 5 + i);
+            }
+            EndgameTablebase tablebase = new EndgameTablebase(targetPiece, diceSequence, maxPieces, firstIndex, data);
+            long expected = tablebase.headerSize + tablebase.slotsPerIndex * Math.max(0, diceSequence.length - firstIndex);
+            if (channel.size() != expected) {
+                throw new IOException(fileName + " is truncated (" + channel.size() + " of " + expected + " bytes)");
+            }
+            return tablebase;
+        }
+    }
+
+    public void write(String fileName) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer all = data.duplicate();
+            all.clear();
+            while (all.hasRemaining()) {
+                channel.write(all);
+            }
+        }
+    }
+
+    public int getTargetPiece() {
+        return targetPiece;
+    }
+
+    public int getMaxPieces() {
+        return maxPieces;
+    }
+
+    // Does the table hold this position (few enough pieces, dice index in range)
+    public boolean covers(GameState state) {
+        int alive = state.getAliveMask();
+        return Integer.bitCount(alive) <= maxPieces && (alive & (1 << (targetPiece - 1))) != 0
+                && state.getDiceIndex() >= firstIndex;
+    }
+
+    // Moves needed to win from the state (dice index taken from the state), NO_WIN or UNKNOWN
+    public int probe(GameState state) {
+        if (state.positionOf(targetPiece) == -1) {
+            return NO_WIN;
+        }
+        if (!covers(state)) {
+            return UNKNOWN;
+        }
+        if (state.isWinning()) {
+            return 0;
+        }
+        int index = state.getDiceIndex();
+        if (index >= diceSequence.length) {
+            return NO_WIN;
+        }
+        int first = -1;
+        int second = -1;
+        for (int piece = 1; piece <= 6; piece++) {
+            if (piece != targetPiece && state.positionOf(piece) != -1) {
+                if (first < 0) {
+                    first = piece;
+                } else {
+                    second = piece;
+                }
+            }
+        }
+        int value = data.get(offset(index, state.positionOf(targetPiece),
+                first, first < 0 ? -1 : state.positionOf(first),
+                second, second < 0 ? -1 : state.positionOf(second))) & 0xFF;
+        return value == NO_WIN_BYTE ? NO_WIN : value;
+    }
+
+    // A move that wins in the fewest moves (encoded, see GameState.encodeMove), or -1 if the position
+    // is not covered or cannot be won; the state is walked with make/unmake and left unchanged
+    public int bestMove(GameState state) {
+        int value = probe(state);
+        if (value <= 0) {
+            return -1;
+        }
+        int index = state.getDiceIndex();
+        int dice = state.getCurrentDice();
+        int[] moves = new int[GameState.MAX_MOVES];
+        int count = state.generateMoves(moves);
+        int best = -1;
+        for (int k = 0; k < count && best < 0; k++) {
+            int undo = state.executeMove(moves[k]);
+            state.setDiceIndex(index + 1);
+            state.setCurrentDice(index + 1 < diceSequence.length ? diceSequence[index + 1] : 0);
+            int child = probe(state);
+            state.setDiceIndex(index);
+            state.setCurrentDice(dice);
+            state.undoMove(undo);
+            if (child == value - 1) {
+                best = moves[k];
+            }
+        }
+        return best;
+    }
+
+    // Slot of a position: squares[p - 1] is the square of piece p (-1 = captured)
+    private int offset(int index, int[] squares) {
+        int first = -1;
+        int second = -1;
+        for (int piece = 1; piece <= 6; piece++) {
+            if (piece != targetPiece && squares[piece - 1] != -1) {
+                if (first < 0) {
+                    first = piece;
+                } else {
+                    second = piece;
+                }
+            }
+        }
+        return offset(index, squares[targetPiece - 1], first, first < 0 ? -1 : squares[first - 1],
+                second, second < 0 ? -1 : squares[second - 1]);
+    }
+
+    // Slot of the target on targetPos plus up to two other pieces (first < second, -1 = none)
+    private int offset(int index, int targetPos, int first, int firstPos, int second, int secondPos) {
+        long slot = (long) (index - firstIndex) * slotsPerIndex;
+        if (first < 0) {
+            slot += targetPos;
+        } else if (second < 0) {
+            slot += ONE_PIECE_SLOTS + rank[first] * 10_000 + targetPos * 100 + firstPos;
+        } else {
+            slot += ONE_PIECE_SLOTS + TWO_PIECE_SLOTS + (long) pairIndex[rank[first]][rank[second]] * 1_000_000
+                    + targetPos * 10_000 + firstPos * 100 + secondPos;
+        }
+        return (int) (headerSize + slot);
+    }
+
+    // Value of every few-piece position at one dice index (index + 1 must already be solved)
+    private void solveIndex(int index) {
+        int[] squares = new int[6];
+        Arrays.fill(squares, -1);
+        int t = targetPiece - 1;
+        int[] others = new int[5];
+        for (int piece = 1, r = 0; piece <= 6; piece++) {
+            if (piece != targetPiece) {
+                others[r++] = piece - 1;
+            }
+        }
+        for (int targetPos = 0; targetPos < 100; targetPos++) {
+            squares[t] = targetPos;
+            solveSlot(index, squares);
+            for (int a = 0; a < 5; a++) {
+                for (int posA = 0; posA < 100; posA++) {
+                    squares[others[a]] = posA;
+                    solveSlot(index, squares);
+                    if (maxPieces >= 3) {
+                        for (int b = a + 1; b < 5; b++) {
+                            for (int posB = 0; posB < 100; posB++) {
+                                squares[others[b]] = posB;
+                                solveSlot(index, squares);
+                            }
+                            squares[others[b]] = -1;
+                        }
+                    }
+                }
+                squares[others[a]] = -1;
+            }
+        }
+    }
+
+    private void solveSlot(int index, int[] squares) {
+        data.put(offset(index, squares), (byte) solvePosition(index, squares));
+    }
+
+    // Moves to win (NO_WIN_BYTE if none) for one position at one dice index
+    private int solvePosition(int index, int[] squares) {
+        int aliveMask = 0;
+        for (int p = 0; p < 6; p++) {
+            if (squares[p] == -1) {
+                continue;
+            }
+            if (squares[p] == 22 || (aliveMask & occupiedBy(squares, squares[p], p)) != 0) {
+                return NO_WIN_BYTE; // Not a real position (square 22 or two pieces on one square)
+            }
+            aliveMask |= 1 << p;
+        }
+        if (squares[targetPiece - 1] == 0) {
+            return 0;
+        }
+
+        int best = NO_WIN_BYTE;
+        int movable = GameState.movableMask(diceSequence[index], aliveMask);
+        while (movable != 0) {
+            int p = Integer.numberOfTrailingZeros(movable);
+            movable &= movable - 1;
+            int from = squares[p];
+            for (int i = 0; i < BoardTables.NEIGHBOR_COUNT[from]; i++) {
+                int to = BoardTables.NEIGHBORS[from * 8 + i];
+                int captured = -1;
+                for (int q = 0; q < 6; q++) {
+                    if (q != p && squares[q] == to) {
+                        captured = q;
+                    }
+                }
+                if (captured == targetPiece - 1) {
+                    continue;
+                }
+                squares[p] = to;
+                if (captured >= 0) {
+                    squares[captured] = -1;
+                }
+                int child = childValue(index + 1, squares);
+                squares[p] = from;
+                if (captured >= 0) {
+                    squares[captured] = to;
+                }
+                if (child != NO_WIN_BYTE && child + 1 < best) {
+                    best = child + 1;
+                }
+            }
+        }
+        return best;
+    }
+
+    private int childValue(int index, int[] squares) {
+        if (squares[targetPiece - 1] == 0) {
+            return 0;
+        }
+        if (index >= diceSequence.length) {
+            return NO_WIN_BYTE;
+        }
+        return data.get(offset(index, squares)) & 0xFF;
+    }
+
+    // Bit of the first piece before `self` that stands on the square (0 if none)
+    private static int occupiedBy(int[] squares, int square, int self) {
+        for (int q = 0; q < self; q++) {
+            if (squares[q] == square) {
+                return 1 << q;
+            }
+        }
+        return 0;
+    }
+}
@@ -1,7 +1,6 @@
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
-import java.io.PrintWriter;
 
 public class GameLoader {
     // Save game data read from the file
@@ -9,6 +8,13 @@ public class GameLoader {
     private int[] initialPositions; // Initial positions of 6 pieces
     private int[] diceSequence;     // dice sequence
 
+    // Take level data that was already read (e.g. a level from a CorpusLoader)
+    public GameLoader(int targetPiece, int[] initialPositions, int[] diceSequence) {
+        this.targetPiece = targetPiece;
+        this.initialPositions = initialPositions;
+        this.diceSequence = diceSequence;
+    }
+
     // Take the level filename and read the data
     public GameLoader(String filename) {
         try {
@@ -40,42 +46,17 @@ public class GameLoader {
 
     // Print game details to moves.txt
     public void printGameDetails(String playerName) {
-        try {
-            // Overwrite existing content
-            PrintWriter pw = new PrintWriter("moves.txt");
-
-            // Line 1: Player name
-            pw.println(playerName);
-
-            // Line 2: Dice sequence (connected by spaces)
-            for (int i = 0; i < diceSequence.length; i++) {
-                pw.print(diceSequence[i]);
-                if (i != diceSequence.length - 1) {
-                    pw.print(" ");
-                }
-            }
-            pw.println();
-
-            // Line 3: Target piece
-            pw.println(targetPiece);
-
-            // Line 4: Initial position (separated by spaces)
-            for (int i = 0; i < 6; i++) {
-                pw.print(initialPositions[i]);
-                if (i != 5) {
-                    pw.print(" ");
-                }
-            }
-            pw.println();
-
-            pw.flush();
-            pw.close();
-        } catch (IOException e) {
-            System.err.println("Failed to write to moves.txt!");
-            e.printStackTrace();
+        // Overwrite existing content
+        try (GameRecorder recorder = new GameRecorder("moves.txt", false)) {
+            printGameDetails(playerName, recorder);
         }
     }
 
+    // Write game details as the header of an open game record
+    public void printGameDetails(String playerName, GameRecorder recorder) {
+        recorder.writeHeader(playerName, diceSequence, targetPiece, initialPositions);
+    }
+
     // Getter method: Allows other classes to access the read data
     public int getTargetPiece() {
         return targetPiece;
@@ -9,7 +9,8 @@ public class GameMain {
         System.out.println("1. Human Player");
         System.out.println("2. Random Player");
         System.out.println("3. AI Player");
-        System.out.print("Input mode number (1/2/3):");
+        System.out.println("4. MCTS Player");
+        System.out.print("Input mode number (1/2/3/4):");
         int mode = scanner.nextInt();
         scanner.nextLine();
 
@@ -30,6 +31,10 @@ public class GameMain {
                 player = new AIPlayer();
                 System.out.println("AI player selected");
                 break;
+            case 4:
+                player = new MctsPlayer();
+                System.out.println("MCTS player selected");
+                break;
             default:
                 System.err.println("Invalid mode! The program exits.");
                 return;
@@ -51,70 +56,85 @@ public class GameMain {
         int[] initialPositions = gameLoader.getInitialPositions();
         int[] diceSequence = gameLoader.getDiceSequence();
 
+        // Set maximum allowed steps by level
+        int maxMoves = maxMovesForLevel(level);
+
         // Set key parameters for AI players
         if (player instanceof AIPlayer) {
             ((AIPlayer) player).setTargetPiece(targetPiece);
             ((AIPlayer) player).setDiceSequence(diceSequence);
-            // Set maximum allowed steps by level
-            int maxMoves = switch (level) {
-                case 1 -> 6;
-                case 2, 3 -> 10;
-                case 4 -> 15;
-                default -> 30;
-            };
             ((AIPlayer) player).setMaxAllowedMoves(maxMoves);
+            // Use the level's endgame tablebase when one has been generated (see EndgameTablebase)
+            ((AIPlayer) player).setTablebase(EndgameTablebase.openIfPresent(
+                    EndgameTablebase.tableFileFor(levelFileName), targetPiece, diceSequence));
         }
-
-        // Print game information to moves.txt
-        gameLoader.printGameDetails(player.getName());
-
-        // Step 5: Initialize game state
-        GameState gameState = new GameState(initialPositions, targetPiece);
-        // Only AI players need to reset the step count and dice index
-        if (player instanceof AIPlayer) {
-            ((AIPlayer) player).resetMoveCount();
+        // MCTS players do not use the dice sequence, only the target and the step limit
+        // (one game at a time here, so the tree search gets every core)
+        if (player instanceof MctsPlayer) {
+            ((MctsPlayer) player).setTargetPiece(targetPiece);
+            ((MctsPlayer) player).setMaxAllowedMoves(maxMoves);
+            ((MctsPlayer) player).setThreads(Runtime.getRuntime().availableProcessors());
         }
-        boolean isWin = false;
-        int moveCount = 0;
-        final int MAX_GLOBAL_MOVES = 30; // Maximum global step count
-
-        // Step 6: main game loop
-        System.out.println("\n===== Game Start =====");
-        while (moveCount < MAX_GLOBAL_MOVES) {
-            // Check if you won
-            if (gameState.isWinning()) {
-                isWin = true;
-                break;
-            }
-            // Check if the dice sequence is exhausted
-            if (moveCount >= diceSequence.length) {
-                System.out.println("Dice sequence is exhausted!");
-                break;
-            }
 
-            // Set the number of dice for the current round
-            int currentDice = diceSequence[moveCount];
-            gameState.setCurrentDice(currentDice);
+        // Print game information to moves.txt; moves are buffered and written by a background thread
+        GameRecorder recorder = new GameRecorder("moves.txt", true);
+        boolean isWin = false;
+        try {
+            gameLoader.printGameDetails(player.getName(), recorder);
+            player.setRecorder(recorder);
 
-            // Update the current AI dice index
+            // Step 5: Initialize game state
+            GameState gameState = new GameState(initialPositions, targetPiece);
+            // Only AI players need to reset the step count and dice index
             if (player instanceof AIPlayer) {
-                ((AIPlayer) player).setCurrentDiceIndex(moveCount);
+                ((AIPlayer) player).resetMoveCount();
             }
+            int moveCount = 0;
+            final int MAX_GLOBAL_MOVES = 30; // Maximum global step count
 
-            // Player chooses to move
-            Move move = player.chooseMove(gameState);
-            if (move == null) {
-                System.out.println("No legal move! The game is over.");
-                break;
-            }
+            // Step 6: main game loop
+            System.out.println("\n===== Game Start =====");
+            while (moveCount < MAX_GLOBAL_MOVES) {
+                // Check if you won
+                if (gameState.isWinning()) {
+                    isWin = true;
+                    break;
+                }
+                // Check if the dice sequence is exhausted
+                if (moveCount >= diceSequence.length) {
+                    System.out.println("Dice sequence is exhausted!");
+                    break;
+                }
+
+                // Set the number of dice for the current round
+                int currentDice = diceSequence[moveCount];
+                gameState.setCurrentDice(currentDice);
+                gameState.setDiceIndex(moveCount);
+
+                // Update the current AI dice index
+                if (player instanceof AIPlayer) {
+                    ((AIPlayer) player).setCurrentDiceIndex(moveCount);
+                }
 
-            // Move and print
-            gameState.executeMove(move);
-            player.printMove(gameState.getCurrentPositions());
-            moveCount++;
+                // Player chooses to move
+                Move move = player.chooseMove(gameState);
+                if (move == null) {
+                    System.out.println("No legal move! The game is over.");
+                    break;
+                }
 
-            System.out.println("Completed " + moveCount + " steps（Up to " +
-                    (player instanceof AIPlayer ? ((AIPlayer) player).getMaxAllowedMoves() : MAX_GLOBAL_MOVES) + " steps）");
+                // Move and print
+                gameState.executeMove(move);
+                player.printMove(gameState.getCurrentPositions());
+                moveCount++;
+
+                System.out.println("Completed " + moveCount + " steps（Up to " +
+                        (player instanceof AIPlayer ? ((AIPlayer) player).getMaxAllowedMoves() : MAX_GLOBAL_MOVES) + " steps）");
+            }
+        } finally {
+            // All moves are in moves.txt once the recorder is closed; closing also stops its writer thread,
+            // so it must happen when the game ends with an exception too
+            recorder.close();
         }
 
         // Step 7: Display game results
@@ -126,4 +146,14 @@ public class GameMain {
         }
         scanner.close();
     }
+
+    // Maximum allowed steps for a level number
+    public static int maxMovesForLevel(int level) {
+        return switch (level) {
+            case 1 -> 6;
+            case 2, 3 -> 10;
+            case 4 -> 15;
+            default -> 30;
+        };
+    }
 }
\ No newline at end of file
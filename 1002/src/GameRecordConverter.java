@@ -0,0 +1,110 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Converts between the moves.txt text format (read by EWN_GUI.jar) and the binary archive format
+//
+// Usage: java GameRecordConverter toBinary archive.ewnb moves1.txt moves2.txt ...   (appends to the archive)
+//        java GameRecordConverter toText archive.ewnb <game index> moves.txt
+public class GameRecordConverter {
+    public static void main(String[] args) {
+        try {
+            if (args.length >= 3 && args[0].equals("toBinary")) {
+                try (BinaryGameWriter writer = new BinaryGameWriter(args[1], true)) {
+                    for (int i = 2; i < args.length; i++) {
+                        textToBinary(args[i], writer);
+                    }
+                }
+            } else if (args.length == 4 && args[0].equals("toText")) {
+                if (!binaryToText(args[1], Long.parseLong(args[2]), args[3])) {
+                    System.err.println("Game " + args[2] + " is not in " + args[1]);
+                }
+            } else {
+                System.err.println("Usage: GameRecordConverter toBinary <archive> <moves.txt>...");
+                System.err.println("       GameRecordConverter toText <archive> <game index> <moves.txt>");
+            }
+        } catch (IOException e) {
+            System.err.println("Conversion failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    // Append one text game record to an archive
+    public static void textToBinary(String textFile, BinaryGameWriter writer) throws IOException {
+        try (BufferedReader br = new BufferedReader(new FileReader(textFile))) {
+            String playerName = br.readLine();
+            int[] diceSequence = parseInts(br.readLine(), textFile, 2);
+            int targetPiece = Integer.parseInt(br.readLine().trim());
+            int[] initialPositions = parseInts(br.readLine(), textFile, 4);
+            if (playerName == null || initialPositions.length != 6) {
+                throw new IOException(textFile + ": incomplete game header");
+            }
+
+            writer.beginGame(playerName, diceSequence, targetPiece, initialPositions);
+            String line;
+            int lineNumber = 4;
+            while ((line = br.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                int[] positions = parseInts(line, textFile, lineNumber);
+                if (positions.length != 6) {
+                    throw new IOException(textFile + ":" + lineNumber + ": expected 6 positions");
+                }
+                writer.recordPositions(positions);
+            }
+            writer.endGame();
+        } catch (NumberFormatException | NullPointerException e) {
+            throw new IOException(textFile + ": malformed game record", e);
+        }
+    }
+
+    // Write game number gameIndex of an archive as a text record; false if the archive has fewer games
+    public static boolean binaryToText(String archiveFile, long gameIndex, String textFile) throws IOException {
+        try (BinaryGameReader reader = new BinaryGameReader(archiveFile)) {
+            while (reader.next()) {
+                if (reader.getGameIndex() != gameIndex) {
+                    continue;
+                }
+                int[] diceSequence = new int[reader.getDiceCount()];
+                for (int i = 0; i < diceSequence.length; i++) {
+                    diceSequence[i] = reader.getDice(i);
+                }
+                int[] initialPositions = new int[6];
+                for (int piece = 1; piece <= 6; piece++) {
+                    initialPositions[piece - 1] = reader.getInitialPosition(piece);
+                }
+                try (GameRecorder recorder = new GameRecorder(textFile, false)) {
+                    recorder.writeHeader(reader.getPlayerName(), diceSequence, reader.getTargetPiece(), initialPositions);
+                    reader.resetReplay();
+                    for (int i = 0; i < reader.getMoveCount(); i++) {
+                        reader.nextMove();
+                        recorder.recordPositions(reader.replayPositions());
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] parseInts(String line, String textFile, int lineNumber) throws IOException {
+        if (line == null) {
+            throw new IOException(textFile + ":" + lineNumber + ": unexpected end of file");
+        }
+        List<Integer> values = new ArrayList<>();
+        for (String part : line.trim().split("\\s+")) {
+            if (!part.isEmpty()) {
+                values.add(Integer.parseInt(part));
+            }
+        }
+        int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,206 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Writes one game record (the moves.txt format) through a single open file channel
+// The header and position lines are encoded straight into a byte buffer, which goes to the file
+// only when it passes the size threshold, on flush() and on close() (game end), instead of reopening
+// the file for every move. With a background writer the buffer is handed to a writer thread, so
+// the file I/O never runs on the thread that decides the moves.
+public class GameRecorder implements AutoCloseable {
+    // Buffered bytes that trigger a write
+    public static final int DEFAULT_THRESHOLD = 8192;
+    // Room for one line beyond the threshold (longer lines get a buffer of their own)
+    private static final int LINE_RESERVE = 256;
+    // Same line ending as the PrintWriter.println calls this replaces
+    private static final byte[] LINE_END = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+
+    private final String fileName;
+    private final int threshold;
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    private final ExecutorService writer;           // null = write on the calling thread
+    private final BlockingQueue<ByteBuffer> spare;  // Buffers the writer thread has finished with
+    private Future<?> lastWrite;
+    private boolean closed;
+
+    // Open (and truncate) the record file; backgroundWriter moves the file writes to a separate thread
+    public GameRecorder(String fileName, boolean backgroundWriter) {
+        this(fileName, backgroundWriter, DEFAULT_THRESHOLD);
+    }
+
+    public GameRecorder(String fileName, boolean backgroundWriter, int threshold) {
+        this.fileName = fileName;
+        this.threshold = threshold;
+        this.buffer = ByteBuffer.allocate(threshold + LINE_RESERVE);
+        try {
+            channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            System.err.println("Failed to open " + fileName + "!");
+            e.printStackTrace();
+        }
+        if (backgroundWriter) {
+            writer = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "game-recorder");
+                thread.setDaemon(true);
+                return thread;
+            });
+            spare = new ArrayBlockingQueue<>(2);
+        } else {
+            writer = null;
+            spare = null;
+        }
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    // Header lines: player name, dice sequence, target piece, initial positions
+    public void writeHeader(String playerName, int[] diceSequence, int targetPiece, int[] initialPositions) {
+        byte[] name = playerName.getBytes(StandardCharsets.UTF_8);
+        ensureRoom(name.length + LINE_END.length);
+        buffer.put(name);
+        buffer.put(LINE_END);
+        putLine(diceSequence, diceSequence.length);
+        putLine(new int[]{targetPiece}, 1);
+        putLine(initialPositions, 6);
+        writeIfFull();
+    }
+
+    // One line with the positions of all 6 pieces after a move (-1 = captured)
+    public void recordPositions(int[] currentPositions) {
+        putLine(currentPositions, 6);
+        writeIfFull();
+    }
+
+    // Send everything buffered so far to the file and wait until it is written
+    public void flush() {
+        submit();
+        awaitWrites();
+    }
+
+    // Flush, stop the writer thread and close the file (call at game end); later calls do nothing
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        flush();
+        if (writer != null) {
+            writer.shutdown();
+        }
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close " + fileName + "!");
+                e.printStackTrace();
+            }
+            channel = null;
+        }
+    }
+
+    // Make sure the next `bytes` bytes fit into the current buffer
+    private void ensureRoom(int bytes) {
+        if (buffer.remaining() < bytes) {
+            submit();
+            if (buffer.remaining() < bytes) {
+                buffer = ByteBuffer.allocate(bytes + threshold + LINE_RESERVE);
+            }
+        }
+    }
+
+    private void writeIfFull() {
+        if (buffer.position() >= threshold) {
+            submit();
+        }
+    }
+
+    // Hand the buffered bytes to the writer (or write them here) and continue with an empty buffer
+    private void submit() {
+        if (buffer.position() == 0) {
+            return;
+        }
+        ByteBuffer full = buffer;
+        full.flip();
+        if (writer == null) {
+            writeFully(full);
+            full.clear();
+            return;
+        }
+        ByteBuffer next = spare.poll();
+        buffer = next != null ? next : ByteBuffer.allocate(full.capacity());
+        lastWrite = writer.submit(() -> {
+            writeFully(full);
+            full.clear();
+            spare.offer(full);
+        });
+    }
+
+    // The writer runs tasks in order, so waiting for the last one waits for all of them
+    private void awaitWrites() {
+        if (lastWrite == null) {
+            return;
+        }
+        try {
+            lastWrite.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Failed to write to " + fileName + "!");
+            e.getCause().printStackTrace();
+        }
+        lastWrite = null;
+    }
+
+    private void writeFully(ByteBuffer bytes) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write to " + fileName + "!");
+            e.printStackTrace();
+        }
+    }
+
+    // Values separated by spaces, then a newline
+    private void putLine(int[] values, int count) {
+        ensureRoom(count * 12 + LINE_END.length);
+        for (int i = 0; i < count; i++) {
+            if (i != 0) {
+                buffer.put((byte) ' ');
+            }
+            putInt(values[i]);
+        }
+        buffer.put(LINE_END);
+    }
+
+    // Decimal digits without going through a String
+    private void putInt(int value) {
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        if (value >= 10) {
+            putInt(value / 10);
+            value %= 10;
+        }
+        buffer.put((byte) ('0' + value));
+    }
+}
@@ -5,6 +5,15 @@ public class GameState {
     private int[] currentPositions; // Current positions of the 6 pieces (-1 indicates captured)
     private int targetPiece;        //Target piece
     private int currentDice;        //Number of dice in the current turn
+    private int diceIndex;          //Index of the current dice in the dice sequence
+    private byte[] board;           //Piece number standing on each square (0 = empty)
+    private int aliveMask;          //Bit i set = piece i+1 has not been captured
+    private long hash;              //Zobrist hash of positions, dice and dice index (updated incrementally)
+    private long occupancyLow;      //Occupied squares 0-63 as bits (see BoardTables.lowBit)
+    private long occupancyHigh;     //Occupied squares 64-99 as bits (see BoardTables.highBit)
+
+    // Upper bound on the number of legal moves in one turn (two movable pieces x 8 neighbours)
+    public static final int MAX_MOVES = 16;
 
     // Constructor: Initialize game state
     public GameState(int[] initialPositions, int targetPiece) {
@@ -12,10 +21,60 @@ public class GameState {
         this.currentPositions = new int[6];
         System.arraycopy(initialPositions, 0, this.currentPositions, 0, 6);
         this.targetPiece = targetPiece;
+        this.board = new byte[100];
+        placePieces();
+        hash ^= Zobrist.dice(0) ^ Zobrist.diceIndex(0);
+    }
+
+    // Fill board, masks and the piece part of the hash from currentPositions (board must be empty)
+    private void placePieces() {
+        for (int i = 0; i < 6; i++) {
+            if (currentPositions[i] != -1) {
+                board[currentPositions[i]] = (byte) (i + 1);
+                aliveMask |= 1 << i;
+                hash ^= Zobrist.pieceSquare(i + 1, currentPositions[i]);
+                occupancyLow |= BoardTables.lowBit(currentPositions[i]);
+                occupancyHigh |= BoardTables.highBit(currentPositions[i]);
+            }
+        }
+    }
+
+    // Rebuild a game state from its packed form (see PackedState)
+    public static GameState fromPacked(long packed, int targetPiece) {
+        int[] positions = new int[6];
+        PackedState.unpackPositions(packed, positions);
+        GameState state = new GameState(positions, targetPiece);
+        state.setCurrentDice(PackedState.dice(packed));
+        state.setDiceIndex(PackedState.diceIndex(packed));
+        return state;
+    }
+
+    // Overwrite this state with a packed one in place: same result as fromPacked, without allocating
+    public void loadPacked(long packed) {
+        for (int i = 0; i < 6; i++) {
+            if (currentPositions[i] != -1) {
+                board[currentPositions[i]] = 0;
+            }
+        }
+        aliveMask = 0;
+        hash = 0;
+        occupancyLow = 0;
+        occupancyHigh = 0;
+        PackedState.unpackPositions(packed, currentPositions);
+        placePieces();
+        currentDice = PackedState.dice(packed);
+        diceIndex = PackedState.diceIndex(packed);
+        hash ^= Zobrist.dice(currentDice) ^ Zobrist.diceIndex(diceIndex);
+    }
+
+    // Pack positions, dice and dice index into one long (no allocation)
+    public long toPacked() {
+        return PackedState.pack(currentPositions, currentDice, diceIndex);
     }
 
     // Set the number of dice for the current turn
     public void setCurrentDice(int currentDice) {
+        hash ^= Zobrist.dice(this.currentDice) ^ Zobrist.dice(currentDice);
         this.currentDice = currentDice;
     }
 
@@ -24,112 +83,180 @@ public class GameState {
         return currentDice;
     }
 
-    // Generate all legal moves (core method)
-    public List<Move> generatePossibleMoves() {
-        List<Move> possibleMoves = new ArrayList<>();
+    // Set the index of the current dice in the dice sequence
+    public void setDiceIndex(int diceIndex) {
+        hash ^= Zobrist.diceIndex(this.diceIndex) ^ Zobrist.diceIndex(diceIndex);
+        this.diceIndex = diceIndex;
+    }
 
-        // Step 1: Identify the currently movable pieces (according to the rules of the problem)
-        List<Integer> movablePieces = findMovablePieces();
+    // Zobrist hash of the whole state (positions, dice and dice index); no allocation
+    public long getHash() {
+        return hash;
+    }
 
-        // Step 2: For each movable piece, generate all legal target positions
-        for (int pieceNum : movablePieces) {
-            int pieceIndex = pieceNum - 1; // Piece 1 corresponds to index 0, piece 2 corresponds to index 1...
-            int currentPos = currentPositions[pieceIndex];
+    public int getDiceIndex() {
+        return diceIndex;
+    }
 
-            // Skip captured pieces (position is -1)
-            if (currentPos == -1) {
-                continue;
-            }
+    public int getTargetPiece() {
+        return targetPiece;
+    }
 
-            // Step 3: Generate 8 adjacent positions (up, down, left, right + diagonals, similar to a chess king)
-            int[] dx = {-1, -1, -1, 0, 0, 1, 1, 1}; // Row Change (Tens Digit)
-            int[] dy = {-1, 0, 1, -1, 1, -1, 0, 1}; // Column change (units digit)
-
-            // Calculate the tens digit (row) and units digit (column) of the current position
-            int currentRow = currentPos / 10;
-            int currentCol = currentPos % 10;
-
-            // Traverse in 8 directions
-            for (int i = 0; i < 8; i++) {
-                int newRow = currentRow + dx[i];
-                int newCol = currentCol + dy[i];
-
-                // Check if the new position is valid: both the row and column are between 0 and 9, and it is not 22
-                if (newRow >= 0 && newRow <= 9 && newCol >= 0 && newCol <= 9) {
-                    int newPos = newRow * 10 + newCol;
-                    if (newPos != 22) { // Position 22 has been removed and cannot be accessed.
-                        possibleMoves.add(new Move(pieceNum, currentPos, newPos));
-                    }
-                }
-            }
+    // Position of a piece (1-6) without copying the position array, -1 if captured
+    public int positionOf(int piece) {
+        return currentPositions[piece - 1];
+    }
+
+    // Piece number (1-6) standing on the square, 0 if the square is empty
+    public int occupantAt(int square) {
+        return board[square];
+    }
+
+    // Generate all legal moves (core method)
+    public List<Move> generatePossibleMoves() {
+        int[] buffer = new int[MAX_MOVES];
+        int count = generateMoves(buffer);
+        List<Move> possibleMoves = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int pieceNum = movePiece(buffer[i]);
+            possibleMoves.add(new Move(pieceNum, currentPositions[pieceNum - 1], moveTo(buffer[i])));
         }
         return possibleMoves;
     }
 
-    //Find the currently movable pieces (according to the game rules)
-    // First, use findMovablePieces to filter uncaptured pieces: match by dice roll first
-    // if no match, pick the closest higher and lower-numbered pieces.
-    private List<Integer> findMovablePieces() {
-        List<Integer> movablePieces = new ArrayList<>();
-        List<Integer> existingPieces = new ArrayList<>();
+    // Allocation-free move generation: fill a caller-owned buffer (at least MAX_MOVES long)
+    // with encoded moves (see encodeMove) and return how many were written
+    public int generateMoves(int[] buffer) {
+        int count = 0;
 
-        // Step 1: Collect the existing chess pieces (those whose positions are not -1)
-        for (int i = 0; i < 6; i++) {
-            if (currentPositions[i] != -1) {
-                existingPieces.add(i + 1); //The chess piece is numbered i+1 (1-6)
+        // Step 1: Identify the currently movable pieces (according to the rules of the problem)
+        int movable = movableMask(currentDice, aliveMask);
+
+        // Step 2: For each movable piece (higher number first, as the rules list them),
+        // copy its precomputed neighbours (board edges and 22 already removed)
+        while (movable != 0) {
+            int pieceIndex = 31 - Integer.numberOfLeadingZeros(movable);
+            movable &= ~(1 << pieceIndex);
+            int currentPos = currentPositions[pieceIndex];
+            int base = currentPos * 8;
+            for (int i = 0; i < BoardTables.NEIGHBOR_COUNT[currentPos]; i++) {
+                buffer[count++] = encodeMove(pieceIndex + 1, BoardTables.NEIGHBORS[base + i]);
             }
         }
+        return count;
+    }
 
-        // Step 2: Determine movable pieces according to the rules
-        if (existingPieces.contains(currentDice)) {
-            // Rule 2: You can only move a piece that matches the number on the dice.
-            movablePieces.add(currentDice);
-        } else {
-            // Rule 3: Find the smallest piece larger than the dice + the largest piece smaller than the dice
-            Integer minBigger = null;
-            Integer maxSmaller = null;
-
-            for (int piece : existingPieces) {
-                if (piece > currentDice) {
-                    if (minBigger == null || piece < minBigger) {
-                        minBigger = piece;
-                    }
-                } else if (piece < currentDice) {
-                    if (maxSmaller == null || piece > maxSmaller) {
-                        maxSmaller = piece;
-                    }
-                }
-            }
+    // Encode a move as a single int: piece number in the high bits, target square in the low 7 bits
+    public static int encodeMove(int pieceNum, int toPos) {
+        return (pieceNum << 7) | toPos;
+    }
 
-            // If available, add to the removable list
-            if (minBigger != null) {
-                movablePieces.add(minBigger);
-            }
-            if (maxSmaller != null) {
-                movablePieces.add(maxSmaller);
-            }
+    public static int movePiece(int encodedMove) {
+        return encodedMove >>> 7;
+    }
+
+    public static int moveTo(int encodedMove) {
+        return encodedMove & 0x7F;
+    }
+
+    //Find the currently movable pieces (according to the game rules), as a bitmask (bit i = piece i+1)
+    // Match by dice roll first; if no match, pick the closest higher and lower-numbered pieces.
+    // The rule is precomputed for every die and alive mask (BoardTables.MOVABLE), so this is one lookup.
+    public static int movableMask(int dice, int aliveMask) {
+        if (dice < 1 || dice > 6) {
+            return 0;
         }
-        return movablePieces;
+        return BoardTables.MOVABLE[dice * 64 + aliveMask];
+    }
+
+    // Occupied squares as a 128-bit mask split into two longs (squares 0-63 / 64-99)
+    public long getOccupancyLow() {
+        return occupancyLow;
+    }
+
+    public long getOccupancyHigh() {
+        return occupancyHigh;
+    }
+
+    // Bitmask of the pieces still on the board (bit i = piece i+1)
+    public int getAliveMask() {
+        return aliveMask;
     }
 
     // Execute move (update piece position, handle captures)
     // Then generate 8-direction candidate positions for these pieces,
     // check they’re within the 0-9 board and not forbidden position 22, and wrap legal positions into Move objects.
-    public void executeMove(Move move) {
-        int pieceIndex = move.getPieceNum() - 1;
-        int fromPos = move.getFromPos();
-        int toPos = move.getToPos();
+    // Returns a compact undo record that undoMove uses to restore the state exactly.
+    public int executeMove(Move move) {
+        return executeMove(move.getPieceNum(), move.getToPos());
+    }
+
+    // Execute an encoded move from generateMoves (no Move object needed)
+    public int executeMove(int encodedMove) {
+        return executeMove(movePiece(encodedMove), moveTo(encodedMove));
+    }
+
+    private int executeMove(int pieceNum, int toPos) {
+        int pieceIndex = pieceNum - 1;
+        int fromPos = currentPositions[pieceIndex];
 
         // Step 1: Check if there are any other pieces at the target location (capture if necessary)
-        for (int i = 0; i < 6; i++) {
-            if (currentPositions[i] == toPos) {
-                currentPositions[i] = -1; // Capture: Set to -1
-                break;
-            }
+        int captured = board[toPos];
+        if (captured != 0) {
+            currentPositions[captured - 1] = -1; // Capture: Set to -1
+            aliveMask &= ~(1 << (captured - 1));
+            hash ^= Zobrist.pieceSquare(captured, toPos);
         }
 
         //Step 2: Update the current piece's position
+        board[fromPos] = 0;
+        board[toPos] = (byte) pieceNum;
         currentPositions[pieceIndex] = toPos;
+        hash ^= Zobrist.pieceSquare(pieceNum, fromPos) ^ Zobrist.pieceSquare(pieceNum, toPos);
+        // toPos is occupied whether or not something was captured there
+        occupancyLow = (occupancyLow & ~BoardTables.lowBit(fromPos)) | BoardTables.lowBit(toPos);
+        occupancyHigh = (occupancyHigh & ~BoardTables.highBit(fromPos)) | BoardTables.highBit(toPos);
+
+        // Undo record: from square (7 bits), moved piece (3 bits), captured piece (3 bits, 0 = none)
+        // The captured piece's old square is the square the moved piece now stands on
+        return fromPos | (pieceNum << 7) | (captured << 10);
+    }
+
+    // Take back a move using the record returned by executeMove (moves must be undone in reverse order)
+    public void undoMove(int undoRecord) {
+        int fromPos = undoFrom(undoRecord);
+        int pieceNum = undoPiece(undoRecord);
+        int captured = undoCaptured(undoRecord);
+        int toPos = currentPositions[pieceNum - 1];
+
+        currentPositions[pieceNum - 1] = fromPos;
+        board[fromPos] = (byte) pieceNum;
+        board[toPos] = (byte) captured;
+        hash ^= Zobrist.pieceSquare(pieceNum, toPos) ^ Zobrist.pieceSquare(pieceNum, fromPos);
+        occupancyLow |= BoardTables.lowBit(fromPos);
+        occupancyHigh |= BoardTables.highBit(fromPos);
+        if (captured == 0) {
+            occupancyLow &= ~BoardTables.lowBit(toPos);
+            occupancyHigh &= ~BoardTables.highBit(toPos);
+        }
+        if (captured != 0) {
+            currentPositions[captured - 1] = toPos;
+            aliveMask |= 1 << (captured - 1);
+            hash ^= Zobrist.pieceSquare(captured, toPos);
+        }
+    }
+
+    // Read the fields of an undo record
+    public static int undoFrom(int undoRecord) {
+        return undoRecord & 0x7F;
+    }
+
+    public static int undoPiece(int undoRecord) {
+        return (undoRecord >>> 7) & 0x7;
+    }
+
+    public static int undoCaptured(int undoRecord) {
+        return (undoRecord >>> 10) & 0x7;
     }
 
     // Determine if victory is achieved (target piece reaches position 0)
@@ -148,6 +275,7 @@ public class GameState {
 
     // Check if there are any legal moves left (to avoid a stalemate)
     public boolean hasPossibleMoves() {
-        return !generatePossibleMoves().isEmpty();
+        // Every square has at least three neighbours, so any movable piece has a legal move
+        return movableMask(currentDice, aliveMask) != 0;
     }
 }
@@ -0,0 +1,196 @@
+// Cached per-state features for the AI heuristic, updated incrementally after one move
+// Features are packed into one long so search nodes can carry them without extra objects:
+//   bits 0-3   non-target pieces standing on the target's path to 0 (blockers)
+//   bits 4-7   non-target pieces next to the target piece (capture threats the target can make)
+//   bits 8-25  for each piece (3 bits each), how many other non-target pieces are at distance 1
+public class HeuristicEvaluator {
+    private static final int NEAR_SHIFT = 8;
+
+    private final int targetPiece;
+
+    public HeuristicEvaluator(int targetPiece) {
+        this.targetPiece = targetPiece;
+    }
+
+    public int getTargetPiece() {
+        return targetPiece;
+    }
+
+    // Compute all features from scratch (used for the search root)
+    public long computeFeatures(GameState state) {
+        int targetPos = state.positionOf(targetPiece);
+        if (targetPos == -1) {
+            return 0;
+        }
+        long features = 0;
+        features = withBlockers(features, countBlockers(state, targetPos));
+        features = withTargetNeighbors(features, countTargetNeighbors(state, targetPos));
+        for (int piece = 1; piece <= 6; piece++) {
+            int pos = state.positionOf(piece);
+            if (piece == targetPiece || pos == -1) {
+                continue;
+            }
+            int near = 0;
+            for (int other = 1; other <= 6; other++) {
+                int otherPos = state.positionOf(other);
+                if (other != piece && other != targetPiece && otherPos != -1 && distance(pos, otherPos) == 1) {
+                    near++;
+                }
+            }
+            features = withNear(features, piece, near);
+        }
+        return features;
+    }
+
+    // Update the parent's features for the move described by the undo record
+    // (state is the child, i.e. the move has already been executed)
+    public long updateFeatures(long parentFeatures, GameState state, int undo) {
+        int targetPos = state.positionOf(targetPiece);
+        if (targetPos == -1) {
+            return 0; // Target captured: the heuristic does not use the features any more
+        }
+        int pieceNum = GameState.undoPiece(undo);
+        int fromPos = GameState.undoFrom(undo);
+        int captured = GameState.undoCaptured(undo);
+        int toPos = state.positionOf(pieceNum);
+        long features = parentFeatures;
+
+        // Blockers and target neighbours: recompute when the target itself moved, otherwise adjust
+        if (pieceNum == targetPiece) {
+            features = withBlockers(features, countBlockers(state, targetPos));
+            features = withTargetNeighbors(features, countTargetNeighbors(state, targetPos));
+        } else {
+            int blockers = blockers(features);
+            int neighbors = targetNeighbors(features);
+            if (isOnPath(targetPos, fromPos)) {
+                blockers--;
+            }
+            if (isNeighbor(targetPos, fromPos)) {
+                neighbors--;
+            }
+            // A captured non-target piece on toPos was already counted there
+            if (captured == 0) {
+                if (isOnPath(targetPos, toPos)) {
+                    blockers++;
+                }
+                if (isNeighbor(targetPos, toPos)) {
+                    neighbors++;
+                }
+            }
+            features = withBlockers(features, blockers);
+            features = withTargetNeighbors(features, neighbors);
+        }
+
+        // Proximity pairs: only the moved piece and the captured piece change
+        if (pieceNum != targetPiece) {
+            // 1. The moved piece leaves fromPos (the captured piece still stands on toPos here)
+            for (int other = 1; other <= 6; other++) {
+                int otherPos = other == captured ? toPos : state.positionOf(other);
+                if (other == pieceNum || other == targetPiece || otherPos == -1) {
+                    continue;
+                }
+                if (distance(fromPos, otherPos) == 1) {
+                    features = addNear(features, other, -1);
+                    features = addNear(features, pieceNum, -1);
+                }
+            }
+        }
+        if (captured != 0) {
+            // 2. The captured piece disappears from toPos
+            for (int other = 1; other <= 6; other++) {
+                int otherPos = state.positionOf(other);
+                if (other == pieceNum || other == captured || other == targetPiece || otherPos == -1) {
+                    continue;
+                }
+                if (distance(toPos, otherPos) == 1) {
+                    features = addNear(features, other, -1);
+                }
+            }
+            features = withNear(features, captured, 0);
+        }
+        if (pieceNum != targetPiece) {
+            // 3. The moved piece arrives on toPos
+            for (int other = 1; other <= 6; other++) {
+                int otherPos = state.positionOf(other);
+                if (other == pieceNum || other == targetPiece || otherPos == -1) {
+                    continue;
+                }
+                if (distance(toPos, otherPos) == 1) {
+                    features = addNear(features, other, 1);
+                    features = addNear(features, pieceNum, 1);
+                }
+            }
+        }
+        return features;
+    }
+
+    public static int blockers(long features) {
+        return (int) (features & 0xF);
+    }
+
+    public static int targetNeighbors(long features) {
+        return (int) ((features >>> 4) & 0xF);
+    }
+
+    // Number of non-target pieces that have another non-target piece at distance 1
+    public static int proximityBonus(long features) {
+        int bonus = 0;
+        for (int piece = 1; piece <= 6; piece++) {
+            if (near(features, piece) > 0) {
+                bonus++;
+            }
+        }
+        return bonus;
+    }
+
+    private static int near(long features, int piece) {
+        return (int) ((features >>> (NEAR_SHIFT + (piece - 1) * 3)) & 0x7);
+    }
+
+    private static long withBlockers(long features, int blockers) {
+        return (features & ~0xFL) | blockers;
+    }
+
+    private static long withTargetNeighbors(long features, int neighbors) {
+        return (features & ~0xF0L) | ((long) neighbors << 4);
+    }
+
+    private static long withNear(long features, int piece, int near) {
+        int shift = NEAR_SHIFT + (piece - 1) * 3;
+        return (features & ~(0x7L << shift)) | ((long) near << shift);
+    }
+
+    private static long addNear(long features, int piece, int delta) {
+        return withNear(features, piece, near(features, piece) + delta);
+    }
+
+    // The target never stands on its own path, so every occupied path square is a non-target blocker
+    private int countBlockers(GameState state, int targetPos) {
+        return BoardTables.countOnPath(targetPos, state.getOccupancyLow(), state.getOccupancyHigh());
+    }
+
+    private int countTargetNeighbors(GameState state, int targetPos) {
+        int count = 0;
+        int base = targetPos * 8;
+        for (int i = 0; i < BoardTables.NEIGHBOR_COUNT[targetPos]; i++) {
+            int occupant = state.occupantAt(BoardTables.NEIGHBORS[base + i]);
+            if (occupant != 0 && occupant != targetPiece) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean isOnPath(int targetPos, int square) {
+        return BoardTables.isOnPath(targetPos, square);
+    }
+
+    private static boolean isNeighbor(int pos, int square) {
+        return square != pos && square != 22
+                && Math.abs(pos / 10 - square / 10) <= 1 && Math.abs(pos % 10 - square % 10) <= 1;
+    }
+
+    private static int distance(int pos1, int pos2) {
+        return Math.abs(pos1 / 10 - pos2 / 10) + Math.abs(pos1 % 10 - pos2 % 10);
+    }
+}
@@ -0,0 +1,248 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Generates random solvable levels in the level*.txt format, verified with the exact solver
+// Each accepted level is written with a comment line holding its exact minimum number of winning
+// moves and a difficulty estimate, so the output can be read back with CorpusLoader:
+//
+//   # min=9 lower=5 detour=4 nodes=1234 difficulty=medium seed=42 candidate=17
+//   3
+//   76 44 74 46 77 73
+//   5 4 4 6 4 4 1 2 4 ...
+//
+// Worker threads draw candidates, solve them and hand the accepted ones to the calling thread,
+// which streams them to the file as they arrive. Candidate k is always built from (seed, k) and tagged
+// with its number, so any level can be regenerated from the comment line; which candidates fill the
+// requested count may still depend on thread timing (and on the time limit).
+//
+// Usage: java LevelGenerator [--count N] [--min M] [--max M] [--threads T] [--seed S]
+//                            [--dice N] [--time-limit MS] [--out corpus.txt]
+public class LevelGenerator {
+    private static final int DICE_LENGTH = 30; // Same length as the hand-written levels
+
+    private final int minMoves;
+    private final int maxMoves;
+    private final int diceLength;
+    private final long seed;
+    private final int threads;
+    private final long timeLimitMillis; // Per candidate; slower candidates are dropped (0 = no limit)
+
+    private final AtomicLong nextCandidate = new AtomicLong();
+    private final AtomicLong candidatesTried = new AtomicLong();
+    private final AtomicLong candidatesTimedOut = new AtomicLong();
+
+    public LevelGenerator(int minMoves, int maxMoves, int diceLength, long seed, int threads, long timeLimitMillis) {
+        this.minMoves = minMoves;
+        this.maxMoves = maxMoves;
+        this.diceLength = diceLength;
+        this.seed = seed;
+        this.threads = Math.max(1, threads);
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int count = 100;
+        int min = 1;
+        int max = 15;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = System.nanoTime();
+        int dice = DICE_LENGTH;
+        long timeLimit = 2000;
+        String out = "corpus.txt";
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--count" -> count = Integer.parseInt(args[++i]);
+                case "--min" -> min = Integer.parseInt(args[++i]);
+                case "--max" -> max = Integer.parseInt(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--dice" -> dice = Integer.parseInt(args[++i]);
+                case "--time-limit" -> timeLimit = Long.parseLong(args[++i]);
+                case "--out" -> out = args[++i];
+                default -> {
+                    System.err.println("Unknown option: " + args[i]);
+                    return;
+                }
+            }
+        }
+
+        LevelGenerator generator = new LevelGenerator(min, max, dice, seed, threads, timeLimit);
+        long start = System.nanoTime();
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(out))) {
+            generator.generate(count, writer);
+        }
+        System.out.println(count + " levels written to " + out + " (" + generator.getCandidatesTried()
+                + " candidates, " + generator.getCandidatesTimedOut() + " over the time limit, "
+                + (System.nanoTime() - start) / 1_000_000 + " ms)");
+    }
+
+    public long getCandidatesTried() {
+        return candidatesTried.get();
+    }
+
+    public long getCandidatesTimedOut() {
+        return candidatesTimedOut.get();
+    }
+
+    // Generate `count` levels and write each one to out as soon as it has been verified
+    public void generate(int count, Appendable out) throws IOException, InterruptedException {
+        BlockingQueue<String> accepted = new ArrayBlockingQueue<>(1024);
+        AtomicInteger remaining = new AtomicInteger(count);
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(() -> work(accepted, remaining), "level-generator-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+        try {
+            for (int written = 0; written < count; written++) {
+                String level = null;
+                while (level == null) {
+                    level = accepted.poll(100, TimeUnit.MILLISECONDS);
+                    if (level == null && !anyAlive(workers)) {
+                        throw new IllegalStateException("Generator workers stopped after " + written + " levels");
+                    }
+                }
+                out.append(level);
+            }
+        } finally {
+            remaining.set(0);
+            for (Thread worker : workers) {
+                worker.interrupt();
+            }
+        }
+    }
+
+    private static boolean anyAlive(Thread[] workers) {
+        for (Thread worker : workers) {
+            if (worker.isAlive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // One worker: draw candidates until enough levels have been accepted
+    private void work(BlockingQueue<String> accepted, AtomicInteger remaining) {
+        // Per-worker table, cleared for every candidate (entries depend on the dice sequence)
+        TranspositionTable table = new TranspositionTable(18, TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED);
+        StringBuilder text = new StringBuilder(256);
+        try {
+            while (remaining.get() > 0) {
+                long candidate = nextCandidate.getAndIncrement();
+                String level = tryCandidate(candidate, table, text);
+                if (level != null && remaining.getAndDecrement() > 0) {
+                    accepted.put(level);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Build candidate k, solve it and return its corpus entry, or null if it is rejected
+    private String tryCandidate(long candidate, TranspositionTable table, StringBuilder text) {
+        candidatesTried.incrementAndGet();
+        SplittableRandom random = new SplittableRandom(mix(seed, candidate));
+        int[] positions = randomPositions(random);
+        int targetPiece = 1 + random.nextInt(6);
+        int[] dice = new int[diceLength];
+        for (int i = 0; i < diceLength; i++) {
+            dice[i] = 1 + random.nextInt(6);
+        }
+
+        // The target moves like a king, so it needs at least its Chebyshev distance to square 0
+        int targetPos = positions[targetPiece - 1];
+        int lowerBound = Math.max(targetPos / 10, targetPos % 10);
+        if (lowerBound > maxMoves) {
+            return null;
+        }
+
+        table.clear();
+        DiceSolver solver = new DiceSolver(targetPiece, dice, table);
+        if (timeLimitMillis > 0) {
+            solver.setDeadline(System.nanoTime() + timeLimitMillis * 1_000_000);
+        }
+        GameState state = new GameState(positions, targetPiece);
+        state.setCurrentDice(dice[0]);
+        state.setDiceIndex(0);
+        int length = solver.solve(state, maxMoves);
+        if (solver.isTimedOut()) {
+            candidatesTimedOut.incrementAndGet();
+            return null;
+        }
+        if (length == DiceSolver.NO_SOLUTION || length < minMoves) {
+            return null;
+        }
+
+        text.setLength(0);
+        text.append("# min=").append(length)
+                .append(" lower=").append(lowerBound)
+                .append(" detour=").append(length - lowerBound)
+                .append(" nodes=").append(solver.getNodeCount())
+                .append(" difficulty=").append(difficulty(length, length - lowerBound, solver.getNodeCount()))
+                .append(" seed=").append(seed)
+                .append(" candidate=").append(candidate).append('\n');
+        text.append(targetPiece).append('\n');
+        appendLine(text, positions, 6);
+        appendLine(text, dice, diceLength);
+        return text.toString();
+    }
+
+    // Independent generator seed per candidate (SplittableRandom seeds that differ by its own gamma
+    // would give shifted copies of the same stream, so the pair is scrambled first)
+    private static long mix(long seed, long candidate) {
+        long z = seed ^ (candidate + 1) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // Six distinct squares, never 0 (already won) or the removed square 22
+    private static int[] randomPositions(SplittableRandom random) {
+        int[] positions = new int[6];
+        for (int i = 0; i < 6; i++) {
+            int square;
+            boolean taken;
+            do {
+                square = 1 + random.nextInt(99);
+                taken = square == 22;
+                for (int j = 0; j < i; j++) {
+                    taken |= positions[j] == square;
+                }
+            } while (taken);
+            positions[i] = square;
+        }
+        return positions;
+    }
+
+    // Difficulty estimate: the GameMain budget tier the minimum fits in, raised one step when the
+    // line needs several detour moves (blocked paths, captures) or a large search to prove it
+    static String difficulty(int minMoves, int detour, long nodes) {
+        String[] tiers = {"easy", "medium", "hard", "expert"};
+        int tier = minMoves <= GameMain.maxMovesForLevel(1) ? 0
+                : minMoves <= GameMain.maxMovesForLevel(2) ? 1
+                : minMoves <= GameMain.maxMovesForLevel(4) ? 2 : 3;
+        if ((detour >= 4 || nodes >= 1_000_000) && tier < 3) {
+            tier++;
+        }
+        return tiers[tier];
+    }
+
+    private static void appendLine(StringBuilder text, int[] values, int count) {
+        for (int i = 0; i < count; i++) {
+            if (i != 0) {
+                text.append(' ');
+            }
+            text.append(values[i]);
+        }
+        text.append('\n');
+    }
+}
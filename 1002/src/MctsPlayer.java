@@ -0,0 +1,297 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Monte Carlo Tree Search player for games whose dice are not known in advance
+// The tree alternates decision nodes (the die is known, pick a move) and chance nodes (the next die is rolled).
+// Playouts reuse the GameState rules with make/unmake and per-thread buffers, so they allocate nothing.
+// Several threads can search the same tree; virtual loss keeps them from all following the same path.
+public class MctsPlayer extends Player {
+    // Exploration constant for UCT
+    private static final double EXPLORATION = 1.4;
+    // Visits added to a path while a thread is still working on it
+    private static final int VIRTUAL_LOSS = 3;
+
+    private int targetPiece;
+    private int maxAllowedMoves = 30;
+    private int currentMoveCount;
+    private int iterationBudget = 20000; // Playouts per move (0 = only the time budget applies)
+    private long timeBudgetMillis = 0;   // Time per move (0 = only the iteration budget applies)
+    private int threads = 1;
+
+    public MctsPlayer() {
+        super("MCTS Player");
+    }
+
+    public void setTargetPiece(int targetPiece) {
+        this.targetPiece = targetPiece;
+    }
+
+    // Moves allowed for the whole game; playouts stop there
+    public void setMaxAllowedMoves(int maxAllowedMoves) {
+        this.maxAllowedMoves = maxAllowedMoves;
+    }
+
+    public int getMaxAllowedMoves() {
+        return maxAllowedMoves;
+    }
+
+    // Number of playouts per move (0 = unlimited, use the time budget)
+    public void setIterationBudget(int iterationBudget) {
+        this.iterationBudget = iterationBudget;
+    }
+
+    // Thinking time per move in milliseconds (0 = unlimited, use the iteration budget)
+    public void setTimeBudgetMillis(long timeBudgetMillis) {
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    // Number of threads searching the tree in parallel
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    public void resetMoveCount() {
+        this.currentMoveCount = 0;
+    }
+
+    @Override
+    public Move chooseMove(GameState gameState) {
+        currentMoveCount++;
+        DecisionNode root = new DecisionNode(gameState);
+        if (root.moveCount == 0) {
+            return null;
+        }
+        if (root.moveCount > 1) {
+            runSearch(gameState, root, maxAllowedMoves - currentMoveCount + 1);
+        }
+
+        // Play the most visited move
+        int best = 0;
+        for (int i = 1; i < root.moveCount; i++) {
+            if (root.visits(i) > root.visits(best)) {
+                best = i;
+            }
+        }
+        int pieceNum = GameState.movePiece(root.moves[best]);
+        return new Move(pieceNum, gameState.positionOf(pieceNum), GameState.moveTo(root.moves[best]));
+    }
+
+    // Run the workers until the iteration or time budget is used up
+    private void runSearch(GameState gameState, DecisionNode root, int movesLeft) {
+        long rootState = gameState.toPacked();
+        AtomicInteger iterations = new AtomicInteger();
+        long deadline = timeBudgetMillis > 0 ? System.nanoTime() + timeBudgetMillis * 1_000_000 : Long.MAX_VALUE;
+        int budget = iterationBudget > 0 || timeBudgetMillis > 0 ? iterationBudget : 1000;
+
+        Thread[] helpers = new Thread[threads - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            Worker worker = new Worker(rootState, root, movesLeft, iterations, budget, deadline, i + 1);
+            helpers[i] = new Thread(worker, "mcts-" + (i + 1));
+            helpers[i].start();
+        }
+        new Worker(rootState, root, movesLeft, iterations, budget, deadline, 0).run();
+        for (Thread helper : helpers) {
+            try {
+                helper.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // One search thread: private state, buffers and random generator
+    private class Worker implements Runnable {
+        private final GameState state;
+        private final DecisionNode root;
+        private final int movesLeft;
+        private final AtomicInteger iterations;
+        private final int budget;
+        private final long deadline;
+        private final SplittableRandom random;
+        private final int[] buffer = new int[GameState.MAX_MOVES];
+        private final int[] undoStack;
+        private final int[] playoutUndo;
+        private final DecisionNode[] pathNodes;
+        private final int[] pathMoves;
+
+        Worker(long rootState, DecisionNode root, int movesLeft, AtomicInteger iterations, int budget, long deadline, int seed) {
+            this.state = GameState.fromPacked(rootState, targetPiece);
+            this.root = root;
+            this.movesLeft = movesLeft;
+            this.iterations = iterations;
+            this.budget = budget;
+            this.deadline = deadline;
+            this.random = new SplittableRandom(System.nanoTime() ^ ((long) seed << 32));
+            this.undoStack = new int[Math.max(movesLeft, 0) + 1];
+            this.playoutUndo = new int[Math.max(movesLeft, 0) + 1];
+            this.pathNodes = new DecisionNode[Math.max(movesLeft, 0) + 1];
+            this.pathMoves = new int[Math.max(movesLeft, 0) + 1];
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                if (budget > 0 && iterations.getAndIncrement() >= budget) {
+                    return;
+                }
+                if (deadline != Long.MAX_VALUE && System.nanoTime() >= deadline) {
+                    return;
+                }
+                iterate();
+            }
+        }
+
+        // Selection, expansion, playout and backpropagation for one path
+        private void iterate() {
+            int depth = 0;
+            DecisionNode node = root;
+            int reward = -1;
+
+            // Selection: follow UCT through decision nodes, sample the die at chance nodes
+            while (true) {
+                if (state.isWinning()) {
+                    reward = 1;
+                    break;
+                }
+                if (state.positionOf(targetPiece) == -1 || depth >= movesLeft || node.moveCount == 0) {
+                    reward = 0;
+                    break;
+                }
+                int child = node.select();
+                pathNodes[depth] = node;
+                pathMoves[depth] = child;
+                node.addVisit(child, VIRTUAL_LOSS);
+                undoStack[depth] = state.executeMove(node.moves[child]);
+                depth++;
+
+                int dice = 1 + random.nextInt(6);
+                state.setCurrentDice(dice);
+                DecisionNode next = node.childFor(child, dice, state);
+                if (next == null) {
+                    break; // Newly expanded: evaluate with a playout
+                }
+                node = next;
+            }
+
+            if (reward < 0) {
+                reward = playout(depth);
+            }
+
+            // Backpropagation: replace the virtual loss with the real visit
+            for (int i = depth - 1; i >= 0; i--) {
+                pathNodes[i].addVisit(pathMoves[i], 1 - VIRTUAL_LOSS);
+                pathNodes[i].addReward(pathMoves[i], reward);
+                state.undoMove(undoStack[i]);
+            }
+            state.setCurrentDice(root.dice);
+        }
+
+        // Random playout from the current state; the state is restored afterwards
+        private int playout(int depth) {
+            int played = 0;
+            int reward = 0;
+            while (true) {
+                if (state.isWinning()) {
+                    reward = 1;
+                    break;
+                }
+                if (state.positionOf(targetPiece) == -1 || depth + played >= movesLeft) {
+                    break;
+                }
+                int count = state.generateMoves(buffer);
+                if (count == 0) {
+                    break;
+                }
+                int move = pickPlayoutMove(count);
+                playoutUndo[played++] = state.executeMove(move);
+                state.setCurrentDice(1 + random.nextInt(6));
+            }
+            for (int i = played - 1; i >= 0; i--) {
+                state.undoMove(playoutUndo[i]);
+            }
+            return reward;
+        }
+
+        // Random move, but never capture the target piece when another move exists
+        private int pickPlayoutMove(int count) {
+            int start = random.nextInt(count);
+            for (int i = 0; i < count; i++) {
+                int move = buffer[(start + i) % count];
+                if (state.occupantAt(GameState.moveTo(move)) != targetPiece) {
+                    return move;
+                }
+            }
+            return buffer[start];
+        }
+    }
+
+    // Decision node: the die is known; one statistics slot and one chance node per legal move
+    private static class DecisionNode {
+        final int dice;
+        final int[] moves = new int[GameState.MAX_MOVES];
+        final int moveCount;
+        final AtomicInteger totalVisits = new AtomicInteger();
+        final AtomicInteger[] visits;
+        final AtomicInteger[] rewards;
+        // Chance outcomes: children[move][dice - 1], created on first visit
+        final DecisionNode[][] children;
+
+        DecisionNode(GameState state) {
+            this.dice = state.getCurrentDice();
+            this.moveCount = state.generateMoves(moves);
+            this.visits = new AtomicInteger[moveCount];
+            this.rewards = new AtomicInteger[moveCount];
+            this.children = new DecisionNode[moveCount][];
+            for (int i = 0; i < moveCount; i++) {
+                visits[i] = new AtomicInteger();
+                rewards[i] = new AtomicInteger();
+            }
+        }
+
+        int visits(int child) {
+            return visits[child].get();
+        }
+
+        void addVisit(int child, int amount) {
+            visits[child].addAndGet(amount);
+            totalVisits.addAndGet(amount);
+        }
+
+        void addReward(int child, int reward) {
+            if (reward != 0) {
+                rewards[child].addAndGet(reward);
+            }
+        }
+
+        // UCT: unvisited moves first, then best mean reward plus exploration bonus
+        int select() {
+            double logTotal = Math.log(Math.max(1, totalVisits.get()));
+            int best = 0;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < moveCount; i++) {
+                int n = visits[i].get();
+                double score = n == 0
+                        ? Double.MAX_VALUE
+                        : (double) rewards[i].get() / n + EXPLORATION * Math.sqrt(logTotal / n);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = i;
+                }
+            }
+            return best;
+        }
+
+        // Decision node reached after a move and a die; null the first time (the caller then runs a playout)
+        synchronized DecisionNode childFor(int child, int dice, GameState state) {
+            if (children[child] == null) {
+                children[child] = new DecisionNode[6];
+            }
+            DecisionNode next = children[child][dice - 1];
+            if (next == null) {
+                children[child][dice - 1] = new DecisionNode(state);
+            }
+            return next;
+        }
+    }
+}
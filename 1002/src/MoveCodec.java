@@ -0,0 +1,62 @@
+// A move described completely in one int: piece, from square, to square and captured piece
+// Layout: from (7 bits) | piece (3 bits) << 7 | captured (3 bits, 0 = none) << 10 | to (7 bits) << 13
+// The low 13 bits are exactly the undo record GameState.executeMove returns for the move, and the
+// compact search encoding (GameState.encodeMove: piece and target square) is one shift away, so the
+// search keeps working with ints and a Move object is only built when a player returns its choice.
+public final class MoveCodec {
+    // No move (the player has nothing to play)
+    public static final int NONE = -1;
+
+    public static int pack(int pieceNum, int fromPos, int toPos, int captured) {
+        return fromPos | (pieceNum << 7) | (captured << 10) | (toPos << 13);
+    }
+
+    // Describe an encoded move (GameState.encodeMove) in the state it is about to be played in
+    public static int of(GameState state, int encodedMove) {
+        int pieceNum = GameState.movePiece(encodedMove);
+        int toPos = GameState.moveTo(encodedMove);
+        return pack(pieceNum, state.positionOf(pieceNum), toPos, state.occupantAt(toPos));
+    }
+
+    // The same move from its undo record and target square (after it has been played)
+    public static int fromUndo(int undoRecord, int toPos) {
+        return undoRecord | (toPos << 13);
+    }
+
+    public static int piece(int move) {
+        return (move >>> 7) & 0x7;
+    }
+
+    public static int from(int move) {
+        return move & 0x7F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 13) & 0x7F;
+    }
+
+    public static int captured(int move) {
+        return (move >>> 10) & 0x7;
+    }
+
+    // Compact encoding accepted by GameState.executeMove(int)
+    public static int encoded(int move) {
+        return GameState.encodeMove(piece(move), to(move));
+    }
+
+    // Materialise the Move handed out by Player.chooseMove (null for NONE)
+    public static Move toMove(int move) {
+        return move == NONE ? null : new Move(piece(move), from(move), to(move));
+    }
+
+    public static String toString(int move) {
+        if (move == NONE) {
+            return "none";
+        }
+        return piece(move) + ":" + from(move) + "->" + to(move) + (captured(move) != 0 ? "x" + captured(move) : "");
+    }
+
+    private MoveCodec() {
+        // Static helpers only
+    }
+}
@@ -0,0 +1,152 @@
+// A* open list: a bucket queue over node fields kept in parallel primitive arrays
+// f = g + h is a small non-negative integer, so every f value gets its own bucket and push/pop are O(1):
+// a bucket is an intrusive stack threaded through next[], and pop takes from the lowest non-empty bucket
+// (within one f value the newest node comes first, which reaches deep nodes of equal cost sooner).
+// A node is an int id into the arrays; nodes stay valid until clear(), so a node's parent chain can be
+// walked after it has been popped. Nothing is allocated per node once the arrays have grown.
+public class OpenList {
+    // Returned by pop when the list is empty, and the parent of a root node
+    public static final int NONE = -1;
+
+    private long[] states = new long[1024];    // PackedState
+    private long[] features = new long[1024];  // HeuristicEvaluator features
+    private int[] firstMoves = new int[1024];  // First move from the root (GameState.encodeMove)
+    private int[] moves = new int[1024];       // Move from the parent to this node
+    private int[] parents = new int[1024];
+    private int[] gCosts = new int[1024];
+    private int[] hCosts = new int[1024];
+    private int[] diceIndexes = new int[1024];
+    private boolean[] proven = new boolean[1024]; // Proven win within the budget (set by markProven)
+    private int[] next = new int[1024];        // Next node in the same bucket
+    private int nodeCount;
+
+    private int[] buckets = new int[64];       // Head node of each f value, NONE if empty
+    private int minF;                          // No non-empty bucket below this f
+    private int size;
+
+    public OpenList() {
+        java.util.Arrays.fill(buckets, NONE);
+    }
+
+    // Drop all nodes (the arrays are kept for the next search)
+    public void clear() {
+        java.util.Arrays.fill(buckets, NONE);
+        nodeCount = 0;
+        minF = 0;
+        size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Nodes waiting to be popped
+    public int size() {
+        return size;
+    }
+
+    // Nodes created since the last clear (popped ones included)
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    // Add a node with priority gCost + hCost and return its id
+    public int push(long state, long feature, int firstMove, int move, int parent, int gCost, int hCost, int diceIndex) {
+        if (nodeCount == states.length) {
+            grow();
+        }
+        int node = nodeCount++;
+        states[node] = state;
+        features[node] = feature;
+        firstMoves[node] = firstMove;
+        moves[node] = move;
+        parents[node] = parent;
+        gCosts[node] = gCost;
+        hCosts[node] = hCost;
+        diceIndexes[node] = diceIndex;
+        proven[node] = false;
+
+        int f = gCost + hCost;
+        if (f >= buckets.length) {
+            int oldLength = buckets.length;
+            buckets = java.util.Arrays.copyOf(buckets, Math.max(oldLength * 2, f + 1));
+            java.util.Arrays.fill(buckets, oldLength, buckets.length, NONE);
+        }
+        next[node] = buckets[f];
+        buckets[f] = node;
+        if (size == 0 || f < minF) {
+            minF = f;
+        }
+        size++;
+        return node;
+    }
+
+    // Remove and return the node with the lowest f value, or NONE
+    public int pop() {
+        if (size == 0) {
+            return NONE;
+        }
+        while (buckets[minF] == NONE) {
+            minF++;
+        }
+        int node = buckets[minF];
+        buckets[minF] = next[node];
+        size--;
+        return node;
+    }
+
+    private void grow() {
+        int length = states.length * 2;
+        states = java.util.Arrays.copyOf(states, length);
+        features = java.util.Arrays.copyOf(features, length);
+        firstMoves = java.util.Arrays.copyOf(firstMoves, length);
+        moves = java.util.Arrays.copyOf(moves, length);
+        parents = java.util.Arrays.copyOf(parents, length);
+        gCosts = java.util.Arrays.copyOf(gCosts, length);
+        hCosts = java.util.Arrays.copyOf(hCosts, length);
+        diceIndexes = java.util.Arrays.copyOf(diceIndexes, length);
+        proven = java.util.Arrays.copyOf(proven, length);
+        next = java.util.Arrays.copyOf(next, length);
+    }
+
+    public long state(int node) {
+        return states[node];
+    }
+
+    public long features(int node) {
+        return features[node];
+    }
+
+    public int firstMove(int node) {
+        return firstMoves[node];
+    }
+
+    public int move(int node) {
+        return moves[node];
+    }
+
+    public int parent(int node) {
+        return parents[node];
+    }
+
+    public int gCost(int node) {
+        return gCosts[node];
+    }
+
+    public int hCost(int node) {
+        return hCosts[node];
+    }
+
+    public int diceIndex(int node) {
+        return diceIndexes[node];
+    }
+
+    // Record that the node is a proven win (e.g. by the endgame tablebase), so it need not be checked again on pop
+    public void markProven(int node) {
+        proven[node] = true;
+    }
+
+    public boolean isProven(int node) {
+        return proven[node];
+    }
+}
@@ -0,0 +1,73 @@
+// Compact game state: the six piece positions, the dice and the dice index packed into one long
+// Layout (from the lowest bit): 6 x 7 bits of positions, 3 bits of dice, 6 bits of dice index
+// A position of 127 inside the long means the piece has been captured (-1 outside)
+public final class PackedState {
+    private static final int POSITION_BITS = 7;
+    private static final long POSITION_MASK = (1L << POSITION_BITS) - 1;
+    private static final int CAPTURED = 127;
+    private static final int DICE_SHIFT = 6 * POSITION_BITS;
+    private static final long DICE_MASK = 0x7L;
+    private static final int DICE_INDEX_SHIFT = DICE_SHIFT + 3;
+    private static final long DICE_INDEX_MASK = 0x3FL;
+
+    // Largest dice index that fits into the packed form
+    public static final int MAX_DICE_INDEX = (int) DICE_INDEX_MASK;
+
+    private PackedState() {
+        // Static helpers only
+    }
+
+    // Pack six positions (index 0 = piece 1), the dice and the dice index
+    public static long pack(int[] positions, int dice, int diceIndex) {
+        long state = 0;
+        for (int i = 0; i < 6; i++) {
+            int pos = positions[i] == -1 ? CAPTURED : positions[i];
+            state |= (long) pos << (i * POSITION_BITS);
+        }
+        return withDice(state, dice, diceIndex);
+    }
+
+    // Position of a piece (1-6), -1 if captured
+    public static int positionOf(long state, int piece) {
+        int pos = (int) ((state >>> ((piece - 1) * POSITION_BITS)) & POSITION_MASK);
+        return pos == CAPTURED ? -1 : pos;
+    }
+
+    // Return a copy of the state with one piece moved (use -1 to capture it)
+    public static long withPosition(long state, int piece, int pos) {
+        int shift = (piece - 1) * POSITION_BITS;
+        long value = pos == -1 ? CAPTURED : pos;
+        return (state & ~(POSITION_MASK << shift)) | (value << shift);
+    }
+
+    // Piece number (1-6) standing on the square, 0 if the square is empty
+    public static int occupantAt(long state, int square) {
+        for (int i = 0; i < 6; i++) {
+            if (((state >>> (i * POSITION_BITS)) & POSITION_MASK) == square) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    public static int dice(long state) {
+        return (int) ((state >>> DICE_SHIFT) & DICE_MASK);
+    }
+
+    public static int diceIndex(long state) {
+        return (int) ((state >>> DICE_INDEX_SHIFT) & DICE_INDEX_MASK);
+    }
+
+    // Return a copy of the state with a new dice and dice index
+    public static long withDice(long state, int dice, int diceIndex) {
+        state &= ~((DICE_MASK << DICE_SHIFT) | (DICE_INDEX_MASK << DICE_INDEX_SHIFT));
+        return state | ((dice & DICE_MASK) << DICE_SHIFT) | ((diceIndex & DICE_INDEX_MASK) << DICE_INDEX_SHIFT);
+    }
+
+    // Unpack the positions into a caller-owned array (index 0 = piece 1)
+    public static void unpackPositions(long state, int[] positions) {
+        for (int i = 0; i < 6; i++) {
+            positions[i] = positionOf(state, i + 1);
+        }
+    }
+}
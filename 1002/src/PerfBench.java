@@ -0,0 +1,267 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntToLongFunction;
+
+// Micro-benchmarks for the hot paths: move generation, make/unmake, heuristic evaluation and a full
+// chooseMove on each level. Reports throughput (ops/s, ns/op) and allocation (bytes/op) per benchmark.
+// Each benchmark runs warm-up rounds first so the JIT has compiled it, then several timed rounds;
+// results are fed into a sink field so the JIT cannot remove the measured work.
+// This is the quick check that needs no build. For forked runs with a blackhole and confidence intervals use the
+// JMH benchmarks in jmh/bench, which run these same bodies (see benchmarks(String)):
+//
+//   cd 1002 && mvn -P jmh package && cd .. && java -jar 1002/target/benchmarks.jar
+//
+// Usage: java PerfBench [--warmup-ms MS] [--measure-ms MS] [--rounds N] [--filter NAME] level1.txt ...
+public class PerfBench {
+    private final long warmupMillis;
+    private final long measureMillis;
+    private final int rounds;
+    private final com.sun.management.ThreadMXBean threadBean;
+    private long sink; // Results of the measured code, so it cannot be optimised away
+
+    public PerfBench(long warmupMillis, long measureMillis, int rounds) {
+        this.warmupMillis = warmupMillis;
+        this.measureMillis = measureMillis;
+        this.rounds = Math.max(1, rounds);
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            this.threadBean = (com.sun.management.ThreadMXBean) bean;
+        } else {
+            this.threadBean = null; // Allocation is then reported as unknown
+        }
+    }
+
+    public static void main(String[] args) {
+        long warmup = 1000;
+        long measure = 2000;
+        int rounds = 5;
+        String filter = null;
+        List<String> levels = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--warmup-ms" -> warmup = Long.parseLong(args[++i]);
+                case "--measure-ms" -> measure = Long.parseLong(args[++i]);
+                case "--rounds" -> rounds = Integer.parseInt(args[++i]);
+                case "--filter" -> filter = args[++i];
+                default -> levels.add(args[i]);
+            }
+        }
+        if (levels.isEmpty()) {
+            levels = Arrays.asList("level1.txt", "level2.txt", "level3.txt", "level4.txt");
+        }
+
+        PerfBench bench = new PerfBench(warmup, measure, rounds);
+        System.out.println(String.format("%-40s %14s %10s %12s %10s", "benchmark", "ops/s", "+- %", "ns/op", "B/op"));
+        for (String levelFile : levels) {
+            GameLoader loader = new GameLoader(levelFile);
+            if (loader.getDiceSequence() == null) {
+                continue;
+            }
+            String level = new java.io.File(levelFile).getName().replace(".txt", "");
+            for (Benchmark benchmark : benchmarksFor(loader, levelFile)) {
+                String name = level + "." + benchmark.name;
+                if (filter == null || name.contains(filter)) {
+                    System.out.println(bench.measure(name, benchmark.body).format());
+                }
+            }
+        }
+        System.out.println("(sink " + bench.sink + ")");
+    }
+
+    // The benchmark bodies of one level by name, for the JMH benchmarks (bench.EngineBenchmark)
+    public static Map<String, IntToLongFunction> benchmarks(String levelFile) {
+        GameLoader loader = new GameLoader(levelFile);
+        if (loader.getDiceSequence() == null) {
+            throw new IllegalArgumentException("Cannot read level " + levelFile);
+        }
+        Map<String, IntToLongFunction> bodies = new LinkedHashMap<>();
+        for (Benchmark benchmark : benchmarksFor(loader, levelFile)) {
+            bodies.put(benchmark.name, benchmark.body);
+        }
+        return bodies;
+    }
+
+    // The benchmarks for one level; each body runs `ops` operations and returns a checksum
+    private static List<Benchmark> benchmarksFor(GameLoader loader, String levelFile) {
+        int targetPiece = loader.getTargetPiece();
+        int[] diceSequence = loader.getDiceSequence();
+        int maxMoves = GameMain.maxMovesForLevel(BatchRunner.levelNumber(levelFile));
+
+        GameState state = new GameState(loader.getInitialPositions(), targetPiece);
+        state.setCurrentDice(diceSequence[0]);
+        state.setDiceIndex(0);
+        int[] buffer = new int[GameState.MAX_MOVES];
+        int moveCount = state.generateMoves(buffer);
+        List<Move> moves = state.generatePossibleMoves();
+
+        AIPlayer evaluator = newAiPlayer(targetPiece, diceSequence, maxMoves, AIPlayer.SearchMode.A_STAR);
+        AIPlayer aStar = newAiPlayer(targetPiece, diceSequence, maxMoves, AIPlayer.SearchMode.A_STAR);
+        AIPlayer idaStar = newAiPlayer(targetPiece, diceSequence, maxMoves, AIPlayer.SearchMode.IDA_STAR);
+
+        List<Benchmark> benchmarks = new ArrayList<>();
+        benchmarks.add(new Benchmark("generatePossibleMoves", ops -> {
+            long sum = 0;
+            for (int i = 0; i < ops; i++) {
+                sum += state.generatePossibleMoves().size();
+            }
+            return sum;
+        }));
+        benchmarks.add(new Benchmark("generateMoves", ops -> {
+            long sum = 0;
+            for (int i = 0; i < ops; i++) {
+                sum += state.generateMoves(buffer);
+            }
+            return sum;
+        }));
+        // One op = execute and undo one move (cycling through the legal moves of the start position)
+        benchmarks.add(new Benchmark("executeMove+undo", ops -> {
+            long sum = 0;
+            for (int i = 0; i < ops; i++) {
+                int undo = state.executeMove(buffer[i % moveCount]);
+                sum += state.getHash();
+                state.undoMove(undo);
+            }
+            return sum;
+        }));
+        benchmarks.add(new Benchmark("executeMove(Move)+undo", ops -> {
+            long sum = 0;
+            for (int i = 0; i < ops; i++) {
+                int undo = state.executeMove(moves.get(i % moves.size()));
+                sum += state.getHash();
+                state.undoMove(undo);
+            }
+            return sum;
+        }));
+        benchmarks.add(new Benchmark("evaluate", ops -> {
+            long sum = 0;
+            for (int i = 0; i < ops; i++) {
+                sum += evaluator.evaluate(state);
+            }
+            return sum;
+        }));
+        benchmarks.add(new Benchmark("chooseMove[A_STAR]", ops -> chooseMoves(aStar, state, ops)));
+        benchmarks.add(new Benchmark("chooseMove[IDA_STAR]", ops -> chooseMoves(idaStar, state, ops)));
+        return benchmarks;
+    }
+
+    // One op = a first move from the start position, as at the beginning of a game
+    private static long chooseMoves(AIPlayer player, GameState state, int ops) {
+        long sum = 0;
+        for (int i = 0; i < ops; i++) {
+            player.resetMoveCount();
+            player.setCurrentDiceIndex(0);
+            Move move = player.chooseMove(state);
+            sum += move == null ? 0 : move.getToPos();
+        }
+        return sum;
+    }
+
+    private static AIPlayer newAiPlayer(int targetPiece, int[] diceSequence, int maxMoves, AIPlayer.SearchMode mode) {
+        AIPlayer player = new AIPlayer();
+        player.setTargetPiece(targetPiece);
+        player.setDiceSequence(diceSequence);
+        player.setMaxAllowedMoves(maxMoves);
+        player.setSearchMode(mode);
+        player.setMovesFile(null);
+        return player;
+    }
+
+    // Warm up, then run timed rounds; the batch size grows until one call takes about 10 ms
+    public Result measure(String name, IntToLongFunction body) {
+        int batch = 1;
+        long warmupEnd = System.nanoTime() + warmupMillis * 1_000_000;
+        while (System.nanoTime() < warmupEnd) {
+            long start = System.nanoTime();
+            sink += body.applyAsLong(batch);
+            if (System.nanoTime() - start < 10_000_000 && batch < (1 << 24)) {
+                batch *= 2;
+            }
+        }
+
+        double[] opsPerSecond = new double[rounds];
+        long totalOps = 0;
+        long totalNanos = 0;
+        long totalBytes = 0;
+        for (int r = 0; r < rounds; r++) {
+            long ops = 0;
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+            long end = start + measureMillis * 1_000_000;
+            long now = start;
+            while (now < end) {
+                sink += body.applyAsLong(batch);
+                ops += batch;
+                now = System.nanoTime();
+            }
+            long bytes = allocatedBytes() - bytesBefore;
+            opsPerSecond[r] = ops * 1e9 / (now - start);
+            totalOps += ops;
+            totalNanos += now - start;
+            totalBytes += bytes;
+        }
+        return new Result(name, opsPerSecond, (double) totalNanos / totalOps,
+                threadBean == null ? -1 : (double) totalBytes / totalOps);
+    }
+
+    private long allocatedBytes() {
+        return threadBean == null ? 0 : threadBean.getThreadAllocatedBytes(Thread.currentThread().threadId());
+    }
+
+    private static class Benchmark {
+        final String name;
+        final IntToLongFunction body;
+
+        Benchmark(String name, IntToLongFunction body) {
+            this.name = name;
+            this.body = body;
+        }
+    }
+
+    // Outcome of one benchmark: per-round throughput, average time and allocation per operation
+    public static class Result {
+        private final String name;
+        private final double[] opsPerSecond;
+        private final double nanosPerOp;
+        private final double bytesPerOp; // -1 when the JVM cannot measure allocation
+
+        Result(String name, double[] opsPerSecond, double nanosPerOp, double bytesPerOp) {
+            this.name = name;
+            this.opsPerSecond = opsPerSecond;
+            this.nanosPerOp = nanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        public double meanOpsPerSecond() {
+            return Arrays.stream(opsPerSecond).average().orElse(0);
+        }
+
+        // Relative standard deviation of the per-round throughput, in percent
+        public double relativeError() {
+            double mean = meanOpsPerSecond();
+            double variance = 0;
+            for (double value : opsPerSecond) {
+                variance += (value - mean) * (value - mean);
+            }
+            variance /= Math.max(1, opsPerSecond.length - 1);
+            return mean == 0 ? 0 : Math.sqrt(variance) / mean * 100;
+        }
+
+        public double getNanosPerOp() {
+            return nanosPerOp;
+        }
+
+        public double getBytesPerOp() {
+            return bytesPerOp;
+        }
+
+        String format() {
+            return String.format("%-40s %14.1f %9.1f%% %12.1f %10s", name, meanOpsPerSecond(), relativeError(),
+                    nanosPerOp, bytesPerOp < 0 ? "n/a" : String.format("%.1f", bytesPerOp));
+        }
+    }
+}
@@ -3,17 +3,53 @@ import java.io.IOException;
 
 public abstract class Player {
     protected String name; // Player Name
+    protected String movesFile = "moves.txt"; // File that printMove appends to (null = do not record)
+    protected GameRecorder recorder;          // Open game record; when set, printMove buffers into it
+    protected BinaryGameWriter binaryWriter;  // Binary archive that also receives every move (null = none)
 
     // Constructor: Initialize player name
     public Player(String name) {
         this.name = name;
     }
 
+    // Change the file moves are recorded in (null turns recording off, e.g. for headless batch games)
+    public void setMovesFile(String movesFile) {
+        this.movesFile = movesFile;
+    }
+
+    public String getMovesFile() {
+        return movesFile;
+    }
+
+    // Record moves through an open GameRecorder instead of reopening movesFile for every move
+    public void setRecorder(GameRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    public GameRecorder getRecorder() {
+        return recorder;
+    }
+
+    // Also record moves into a binary archive (the caller begins and ends the game on the writer)
+    public void setBinaryWriter(BinaryGameWriter binaryWriter) {
+        this.binaryWriter = binaryWriter;
+    }
+
     // Print move to moves.txt (append to the end of the file)
     public void printMove(int[] currentPositions) {
+        if (binaryWriter != null) {
+            binaryWriter.recordPositions(currentPositions);
+        }
+        if (recorder != null) {
+            recorder.recordPositions(currentPositions);
+            return;
+        }
+        if (movesFile == null) {
+            return;
+        }
         try {
             // Append mode (will not overwrite existing content)
-            PrintWriter pw = new PrintWriter(new java.io.FileWriter("moves.txt", true));
+            PrintWriter pw = new PrintWriter(new java.io.FileWriter(movesFile, true));
 
             // Print the current positions of all pieces (separated by spaces, -1 indicates captured)
             for (int i = 0; i < 6; i++) {
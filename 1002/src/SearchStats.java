@@ -0,0 +1,173 @@
+// Counters for one AIPlayer decision (one chooseMove call)
+// The player keeps one instance and resets it at the start of every decision, so counting costs
+// a field increment and allocates nothing; use copy() to keep the numbers of an earlier move.
+public class SearchStats {
+    // Pruning rules of the A* and IDA* search (see AIPlayer.pushChildNode / evaluateChild)
+    public static final int RULE_VISITED = 1;          // Already reached in as few or fewer steps
+    public static final int RULE_TARGET_CAPTURED = 2;  // The target piece is gone without this move capturing it (safety net)
+    public static final int RULE_CAPTURES_TARGET = 3;  // The move captures the target piece
+    public static final int RULE_HEURISTIC = 4;        // Lower bound (DiceBound) exceeds the remaining steps
+    public static final int RULE_BLOCKS_PATH = 5;      // A non-target piece steps onto the target's path
+    public static final int RULE_ENDGAME = 6;          // The endgame tablebase shows no win within the remaining steps
+    public static final int RULE_COUNT = 6;
+
+    private String mode = "";
+    private long nodesGenerated;   // Children created by executing a move
+    private long nodesExpanded;    // Nodes whose moves were generated
+    private final long[] pruned = new long[RULE_COUNT + 1]; // Index = rule number
+    private long ttProbes;
+    private long ttHits;
+    private int peakOpenSize;      // Largest A* open set (for IDA*: deepest path)
+    private long solverNodes;      // Nodes visited by the exact solver (EXACT / PARALLEL)
+    private long tablebaseHits;    // Positions answered by the endgame tablebase
+    private boolean proven;
+    private boolean timedOut;
+    private long startNanos;
+    private long elapsedNanos;
+
+    // Clear all counters and start the clock
+    public void reset(String mode) {
+        this.mode = mode;
+        nodesGenerated = 0;
+        nodesExpanded = 0;
+        java.util.Arrays.fill(pruned, 0);
+        ttProbes = 0;
+        ttHits = 0;
+        peakOpenSize = 0;
+        solverNodes = 0;
+        tablebaseHits = 0;
+        proven = false;
+        timedOut = false;
+        elapsedNanos = 0;
+        startNanos = System.nanoTime();
+    }
+
+    // Stop the clock and record how the decision ended
+    public void finish(boolean proven, boolean timedOut) {
+        this.proven = proven;
+        this.timedOut = timedOut;
+        this.elapsedNanos = System.nanoTime() - startNanos;
+    }
+
+    public SearchStats copy() {
+        SearchStats copy = new SearchStats();
+        copy.mode = mode;
+        copy.nodesGenerated = nodesGenerated;
+        copy.nodesExpanded = nodesExpanded;
+        System.arraycopy(pruned, 0, copy.pruned, 0, pruned.length);
+        copy.ttProbes = ttProbes;
+        copy.ttHits = ttHits;
+        copy.peakOpenSize = peakOpenSize;
+        copy.solverNodes = solverNodes;
+        copy.tablebaseHits = tablebaseHits;
+        copy.proven = proven;
+        copy.timedOut = timedOut;
+        copy.startNanos = startNanos;
+        copy.elapsedNanos = elapsedNanos;
+        return copy;
+    }
+
+    void nodeGenerated() {
+        nodesGenerated++;
+    }
+
+    void nodeExpanded() {
+        nodesExpanded++;
+    }
+
+    void pruned(int rule) {
+        pruned[rule]++;
+    }
+
+    void ttProbe(boolean hit) {
+        ttProbes++;
+        if (hit) {
+            ttHits++;
+        }
+    }
+
+    void openSize(int size) {
+        if (size > peakOpenSize) {
+            peakOpenSize = size;
+        }
+    }
+
+    void addSolverNodes(long nodes) {
+        solverNodes += nodes;
+    }
+
+    void tablebaseHit() {
+        tablebaseHits++;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public long getNodesGenerated() {
+        return nodesGenerated;
+    }
+
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    // How often a pruning rule (RULE_VISITED .. RULE_ENDGAME) cut off a child
+    public long getPruned(int rule) {
+        return pruned[rule];
+    }
+
+    public long getTotalPruned() {
+        long total = 0;
+        for (int rule = 1; rule <= RULE_COUNT; rule++) {
+            total += pruned[rule];
+        }
+        return total;
+    }
+
+    public long getTtProbes() {
+        return ttProbes;
+    }
+
+    public long getTtHits() {
+        return ttHits;
+    }
+
+    public int getPeakOpenSize() {
+        return peakOpenSize;
+    }
+
+    public long getSolverNodes() {
+        return solverNodes;
+    }
+
+    public long getTablebaseHits() {
+        return tablebaseHits;
+    }
+
+    public boolean isProven() {
+        return proven;
+    }
+
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    // Nodes (search plus solver) per second of the decision
+    public double nodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : (nodesGenerated + solverNodes) * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d generated, %d expanded, pruned [visited %d, target captured %d, captures target %d,"
+                        + " heuristic %d, blocks path %d, endgame %d], TT %d/%d hits, peak open %d, solver %d, tablebase %d, %.3f ms%s%s",
+                mode, nodesGenerated, nodesExpanded, pruned[1], pruned[2], pruned[3], pruned[4], pruned[5], pruned[6],
+                ttHits, ttProbes, peakOpenSize, solverNodes, tablebaseHits, elapsedNanos / 1e6,
+                proven ? ", proven" : "", timedOut ? ", timed out" : "");
+    }
+}
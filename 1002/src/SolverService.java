@@ -0,0 +1,292 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+
+// Long-running solver service: one warm JVM answers many levels instead of a GameMain JVM per game
+// Requests arrive on stdin or on a local (loopback) socket as a header line followed by the three lines of a
+// level in the GameLoader format; the positions line holds the current positions and index= the dice index
+// the position is at (default 0):
+//
+//   SOLVE <id> [budget=N] [time=MS] [index=K] [reply=plan|move]
+//   3
+//   76 44 74 46 77 73
+//   5 4 4 6 4 4 1 2 ...
+//
+// Replies are single lines tagged with the request id (requests run concurrently and may finish out of order):
+//
+//   OK <id> <length> <nodes> 5:76->65 4:45->44x2 ...   winning line (only its first move for reply=move)
+//   NONE <id> <nodes>                                   no win within the budget
+//   TIMEOUT <id> <nodes>                                time limit reached before a result
+//   ERROR <id> <message>
+//
+// PING is answered with PONG; QUIT ends the session (the service in stdin mode, the connection in socket mode).
+// Every request is solved exactly by its own DiceSolver on its own virtual thread. The board, Zobrist and
+// movable-piece tables are static and shared read-only; the transposition table is per request, and
+// --max-concurrent bounds how many of them exist at once.
+//
+// Usage: java SolverService [--port N] [--max-concurrent N] [--time-limit MS] [--table-bits B]
+public class SolverService {
+    private static final int DEFAULT_BUDGET = 30;   // Same global step limit as GameMain
+    private static final int MAX_DICE = PackedState.MAX_DICE_INDEX + 1; // Dice indexes the Zobrist keys tell apart
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore solveSlots;
+    private final long defaultTimeLimitMillis;
+    private final int tableBits;
+
+    public SolverService(int maxConcurrent, long defaultTimeLimitMillis, int tableBits) {
+        this.solveSlots = new Semaphore(Math.max(1, maxConcurrent));
+        this.defaultTimeLimitMillis = defaultTimeLimitMillis;
+        this.tableBits = tableBits;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = -1;
+        int maxConcurrent = Runtime.getRuntime().availableProcessors();
+        long timeLimit = 10_000;
+        int tableBits = 16;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--max-concurrent" -> maxConcurrent = Integer.parseInt(args[++i]);
+                case "--time-limit" -> timeLimit = Long.parseLong(args[++i]);
+                case "--table-bits" -> tableBits = Integer.parseInt(args[++i]);
+                default -> {
+                    System.err.println("Unknown option: " + args[i]);
+                    return;
+                }
+            }
+        }
+
+        SolverService service = new SolverService(maxConcurrent, timeLimit, tableBits);
+        if (port < 0) {
+            service.serveStdin();
+        } else {
+            service.serveSocket(port);
+        }
+    }
+
+    // Serve the requests of stdin until QUIT or end of input, then wait for the running ones
+    public void serveStdin() throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        serve(in, out);
+        executor.shutdown();
+    }
+
+    // Accept loopback connections forever; each connection is a session on its own thread
+    public void serveSocket(int port) throws IOException {
+        try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            System.err.println("SolverService listening on " + server.getLocalSocketAddress());
+            while (true) {
+                Socket socket = server.accept();
+                executor.execute(() -> {
+                    try (Socket connection = socket) {
+                        serve(new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8)),
+                                new BufferedWriter(new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8)));
+                    } catch (IOException e) {
+                        System.err.println("Connection closed: " + e.getMessage());
+                    }
+                });
+            }
+        }
+    }
+
+    // Read one session's requests; every SOLVE runs on its own thread and replies when it is done.
+    // Returns once the session has ended and all of its requests have replied.
+    public void serve(BufferedReader in, Writer out) throws IOException {
+        Phaser running = new Phaser(1);
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] header = line.split("\\s+");
+                switch (header[0]) {
+                    case "PING" -> reply(out, "PONG");
+                    case "QUIT" -> {
+                        return;
+                    }
+                    case "SOLVE" -> {
+                        // The level lines are read here, in order, so the next request starts on the right line
+                        String[] level = {in.readLine(), in.readLine(), in.readLine()};
+                        running.register();
+                        executor.execute(() -> {
+                            try {
+                                reply(out, handle(header, level));
+                            } finally {
+                                running.arriveAndDeregister();
+                            }
+                        });
+                    }
+                    default -> reply(out, "ERROR - unknown command " + header[0]);
+                }
+            }
+        } finally {
+            running.arriveAndAwaitAdvance();
+        }
+    }
+
+    private static void reply(Writer out, String line) {
+        synchronized (out) {
+            try {
+                out.write(line);
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                // The client has gone; the remaining replies of the session are dropped
+            }
+        }
+    }
+
+    // Parse and solve one request; never throws, errors become an ERROR reply
+    String handle(String[] header, String[] level) {
+        String id = header.length > 1 ? header[1] : "-";
+        try {
+            int budget = DEFAULT_BUDGET;
+            long timeLimit = defaultTimeLimitMillis;
+            int index = 0;
+            boolean fullPlan = true;
+            for (int i = 2; i < header.length; i++) {
+                String option = header[i];
+                int eq = option.indexOf('=');
+                String value = eq < 0 ? "" : option.substring(eq + 1);
+                switch (eq < 0 ? option : option.substring(0, eq)) {
+                    case "budget" -> budget = Integer.parseInt(value);
+                    case "time" -> timeLimit = Long.parseLong(value);
+                    case "index" -> index = Integer.parseInt(value);
+                    case "reply" -> {
+                        if (!value.equals("plan") && !value.equals("move")) {
+                            return "ERROR " + id + " reply must be plan or move";
+                        }
+                        fullPlan = value.equals("plan");
+                    }
+                    default -> {
+                        return "ERROR " + id + " unknown option " + option;
+                    }
+                }
+            }
+            if (budget < 1) {
+                return "ERROR " + id + " budget must be at least 1";
+            }
+            if (timeLimit < 0) {
+                return "ERROR " + id + " time must not be negative (0 = no limit)";
+            }
+            if (level[2] == null) {
+                return "ERROR " + id + " level is incomplete (expected target, positions and dice lines)";
+            }
+            int[] target = parseNumbers(level[0]);
+            int[] positions = parseNumbers(level[1]);
+            int[] dice = parseNumbers(level[2]);
+            String error = validate(target, positions, dice, index);
+            if (error != null) {
+                return "ERROR " + id + " " + error;
+            }
+            return solve(id, target[0], positions, dice, index, budget, timeLimit, fullPlan);
+        } catch (NumberFormatException e) {
+            return "ERROR " + id + " not a number: " + e.getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "ERROR " + id + " interrupted";
+        } catch (RuntimeException e) {
+            // A bug in the engine must still answer the client, which would otherwise wait forever
+            return "ERROR " + id + " " + e;
+        }
+    }
+
+    private String solve(String id, int targetPiece, int[] positions, int[] dice, int index, int budget,
+                         long timeLimit, boolean fullPlan) throws InterruptedException {
+        solveSlots.acquire();
+        try {
+            DiceSolver solver = new DiceSolver(targetPiece, dice,
+                    new TranspositionTable(tableBits, TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED));
+            if (timeLimit > 0) {
+                solver.setDeadline(System.nanoTime() + timeLimit * 1_000_000);
+            }
+            GameState state = new GameState(positions, targetPiece);
+            state.setCurrentDice(dice[index]);
+            state.setDiceIndex(index);
+            int length = solver.solve(state, Math.min(budget, dice.length - index));
+            if (solver.isTimedOut()) {
+                return "TIMEOUT " + id + " " + solver.getNodeCount();
+            }
+            if (length == DiceSolver.NO_SOLUTION) {
+                return "NONE " + id + " " + solver.getNodeCount();
+            }
+
+            StringBuilder reply = new StringBuilder(32 + length * 10);
+            reply.append("OK ").append(id).append(' ').append(length).append(' ').append(solver.getNodeCount());
+            int moves = fullPlan ? length : Math.min(length, 1);
+            for (int i = 0; i < moves; i++) {
+                int move = solver.getPlanMove(i);
+                reply.append(' ').append(MoveCodec.toString(MoveCodec.of(state, move)));
+                state.executeMove(move);
+            }
+            return reply.toString();
+        } finally {
+            solveSlots.release();
+        }
+    }
+
+    private static int[] parseNumbers(String line) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty()) {
+            return new int[0];
+        }
+        String[] parts = trimmed.split("\\s+");
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Integer.parseInt(parts[i]);
+        }
+        return values;
+    }
+
+    // Same checks as CorpusLoader, plus the dice index the position is at
+    private static String validate(int[] target, int[] positions, int[] dice, int index) {
+        if (target.length != 1 || target[0] < 1 || target[0] > 6) {
+            return "target line must hold one piece number between 1 and 6";
+        }
+        if (positions.length != 6) {
+            return "expected 6 positions, found " + positions.length;
+        }
+        for (int i = 0; i < 6; i++) {
+            int p = positions[i];
+            if (p < -1 || p > 99 || p == 22) {
+                return "position " + p + " of piece " + (i + 1) + " is not a board square";
+            }
+            for (int j = 0; j < i; j++) {
+                if (p != -1 && positions[j] == p) {
+                    return "pieces " + (j + 1) + " and " + (i + 1) + " share square " + p;
+                }
+            }
+        }
+        if (positions[target[0] - 1] == -1) {
+            return "the target piece has been captured";
+        }
+        if (dice.length == 0 || dice.length > MAX_DICE) {
+            return "dice sequence must hold 1 to " + MAX_DICE + " values";
+        }
+        for (int i = 0; i < dice.length; i++) {
+            if (dice[i] < 1 || dice[i] > 6) {
+                return "dice value " + dice[i] + " at index " + i + " is not between 1 and 6";
+            }
+        }
+        if (index < 0 || index >= dice.length) {
+            return "index " + index + " is outside the dice sequence";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,134 @@
+// Fixed-size open-addressing transposition table over long (Zobrist) keys
+// Each entry packs depth, bound type, best move and value into one long, so nothing is allocated per store
+// Safe to share between search threads without locks: each slot stores key ^ entry, so an entry torn
+// by a concurrent write no longer matches its key and simply reads as a miss
+public class TranspositionTable {
+    // What the stored value means
+    public static final int BOUND_EXACT = 0;
+    public static final int BOUND_LOWER = 1;
+    public static final int BOUND_UPPER = 2;
+
+    // Returned by probe when the key is not in the table
+    public static final long MISS = -1L;
+
+    // Number of neighbouring slots searched for a key before an entry is replaced
+    private static final int CLUSTER_SIZE = 4;
+
+    // Which entry to give up when a cluster is full
+    public enum ReplacementPolicy {
+        ALWAYS,          // The new entry always takes the first slot of the cluster
+        DEPTH_PREFERRED  // The new entry replaces the shallowest entry, and only if it is at least as deep
+    }
+
+    private final long[] keys;
+    private final long[] entries;
+    private final int mask;
+    private ReplacementPolicy policy;
+
+    // Create a table with 2^sizeBits slots
+    public TranspositionTable(int sizeBits, ReplacementPolicy policy) {
+        this.keys = new long[1 << sizeBits];
+        this.entries = new long[1 << sizeBits];
+        this.mask = (1 << sizeBits) - 1;
+        this.policy = policy;
+    }
+
+    public void setReplacementPolicy(ReplacementPolicy policy) {
+        this.policy = policy;
+    }
+
+    public ReplacementPolicy getReplacementPolicy() {
+        return policy;
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    // Remove all entries
+    public void clear() {
+        java.util.Arrays.fill(keys, 0L);
+        java.util.Arrays.fill(entries, 0L);
+    }
+
+    // Look up a key: returns the packed entry (read it with depth/bound/bestMove/value) or MISS
+    public long probe(long key) {
+        key = nonZero(key);
+        int index = (int) key & mask;
+        for (int i = 0; i < CLUSTER_SIZE; i++) {
+            int slot = (index + i) & mask;
+            long entry = entries[slot];
+            long stored = keys[slot];
+            if ((stored ^ entry) == key) {
+                return entry;
+            }
+            if (stored == 0 && entry == 0) {
+                return MISS;
+            }
+        }
+        return MISS;
+    }
+
+    // Store an entry, following the replacement policy when the key is not already present
+    public void store(long key, int depth, int bound, int value, int bestMove) {
+        key = nonZero(key);
+        long entry = pack(depth, bound, value, bestMove);
+        int index = (int) key & mask;
+        int victim = index;
+        int victimDepth = Integer.MAX_VALUE;
+        for (int i = 0; i < CLUSTER_SIZE; i++) {
+            int slot = (index + i) & mask;
+            long slotEntry = entries[slot];
+            long stored = keys[slot];
+            if ((stored ^ slotEntry) == key || (stored == 0 && slotEntry == 0)) {
+                // Same state or free slot: always overwrite
+                write(slot, key, entry);
+                return;
+            }
+            int slotDepth = depth(slotEntry);
+            if (slotDepth < victimDepth) {
+                victimDepth = slotDepth;
+                victim = slot;
+            }
+        }
+        if (policy == ReplacementPolicy.ALWAYS) {
+            write(index, key, entry);
+        } else if (depth >= victimDepth) {
+            write(victim, key, entry);
+        }
+    }
+
+    private void write(int slot, long key, long entry) {
+        entries[slot] = entry;
+        keys[slot] = key ^ entry;
+    }
+
+    // Entry layout: bound (2 bits) | depth (8 bits) | best move (22 bits) | value (16 bits, signed)
+    private static long pack(int depth, int bound, int value, int bestMove) {
+        return (bound & 0x3L)
+                | ((depth & 0xFFL) << 2)
+                | ((bestMove & 0x3FFFFFL) << 10)
+                | ((value & 0xFFFFL) << 32);
+    }
+
+    public static int depth(long entry) {
+        return (int) ((entry >>> 2) & 0xFF);
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry & 0x3);
+    }
+
+    public static int bestMove(long entry) {
+        return (int) ((entry >>> 10) & 0x3FFFFF);
+    }
+
+    public static int value(long entry) {
+        return (short) (entry >>> 32);
+    }
+
+    // Key 0 marks an empty slot, so map a (very unlikely) zero hash to another value
+    private static long nonZero(long key) {
+        return key == 0 ? 1 : key;
+    }
+}
@@ -0,0 +1,39 @@
+import java.util.SplittableRandom;
+
+// Random keys for Zobrist hashing of game states (fixed seed, so hashes are stable between runs)
+public final class Zobrist {
+    // Key for piece p (1-6) standing on a square, stored at (p - 1) * 100 + square
+    private static final long[] PIECE_SQUARE = new long[6 * 100];
+    // Keys for the current dice (0-6) and the dice index (0-63)
+    private static final long[] DICE = new long[8];
+    private static final long[] DICE_INDEX = new long[64];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x45574E2D31303032L);
+        for (int i = 0; i < PIECE_SQUARE.length; i++) {
+            PIECE_SQUARE[i] = random.nextLong();
+        }
+        for (int i = 0; i < DICE.length; i++) {
+            DICE[i] = random.nextLong();
+        }
+        for (int i = 0; i < DICE_INDEX.length; i++) {
+            DICE_INDEX[i] = random.nextLong();
+        }
+    }
+
+    private Zobrist() {
+        // Static keys only
+    }
+
+    public static long pieceSquare(int pieceNum, int square) {
+        return PIECE_SQUARE[(pieceNum - 1) * 100 + square];
+    }
+
+    public static long dice(int dice) {
+        return DICE[dice & 7];
+    }
+
+    public static long diceIndex(int diceIndex) {
+        return DICE_INDEX[diceIndex & 63];
+    }
+}